@@ -0,0 +1,782 @@
+package com.example.rongame.ai;
+
+import com.example.rongame.model.BitBoardRepresentation;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * מנוע חיפוש negamax עם גיזום אלפא-בטא על מהלכים מלאים (הנחה + רביע + כיוון)
+ * החיפוש רץ על עותק יחיד של הלוח בעזרת doMove/undoMove, ללא הקצאת לוח לכל צומת
+ *
+ * PVS: הבן הראשון נבדק בחלון מלא והשאר בחלון אפס, עם חיפוש חוזר כשבן מפתיע.
+ * בהעמקה הדרגתית כל עומק מתחיל בחלון שאיפה סביב הציון הקודם, שמתרחב כשהציון יוצא ממנו.
+ * בקצה העומק חיפוש שקט ממשיך רק ניצחונות מיידיים וחסימות הכרחיות, עד שהמצב שקט או שתקרת ההארכות נגמרת.
+ * מהלכים שקטים מאוחרים ברשימה נבדקים בעומק מופחת (LMR) ונבדקים שוב בעומק מלא אם הפתיעו,
+ * וליד העלים מהלכים שקטים נגזמים כשההערכה הסטטית רחוקה מאלפא יותר ממרווח הבטיחות (futility).
+ */
+public class AlphaBetaSearch {
+
+    // ========================
+    // קבועים
+    // ========================
+
+    public static final int WIN_SCORE = 1_000_000;
+    public static final int INFINITY = WIN_SCORE + 1;
+    public static final int DEFAULT_DEPTH = 3;
+
+    // מעל ערך זה הציון מייצג ניצחון/הפסד בכפייה
+    public static final int WIN_THRESHOLD = WIN_SCORE - 100;
+
+    private static final int MAX_PLY = 36;
+    static final int NOT_TERMINAL = Integer.MIN_VALUE;
+
+    // בדיקת זמן/צמתים פעם בכל כך הרבה צמתים
+    private static final int CHECK_INTERVAL_MASK = 1023;
+
+    // חלון השאיפה ההתחלתי וקצב ההרחבה שלו
+    private static final int ASPIRATION_WINDOW = 50;
+    private static final int ASPIRATION_GROWTH = 4;
+
+    // תקרת ברירת המחדל להארכות של החיפוש השקט (0 - כבוי)
+    public static final int DEFAULT_QUIESCENCE_DEPTH = 2;
+
+    // LMR: כמה מהלכים ראשונים (מתוך עד 288) נבדקים תמיד בעומק מלא, ומאיזה עומק מפחיתים
+    private static final int LMR_FULL_DEPTH_MOVES = 16;
+    private static final int LMR_MIN_DEPTH = 3;
+    // מהלכים מאוחר מזה מופחתים בשתי רמות (בעומק מספיק)
+    private static final int LMR_DEEP_MOVES = 64;
+
+    // futility: מרווח הבטיחות לפי העומק הנותר (1 או 2)
+    private static final int[] FUTILITY_MARGINS = {0, 600, 1500};
+
+    // משקלי המשבצות (אותה מטריצה של PentagoAI) בסדר מיקומים 0-35
+    static final int[] CELL_WEIGHTS = flattenWeights(PentagoAI.createPositionWeights());
+
+    // ========================
+    // שדות
+    // ========================
+
+    private int maxDepth;
+    private long nodes;
+
+    // עצירת חיפוש - לפי זמן, תקציב צמתים או בקשה חיצונית
+    private volatile boolean stopRequested;
+    private boolean aborted;
+    private long deadlineNanos;
+    private long nodeLimit;
+
+    // בחיפוש מקבילי: דגל עצירה משותף לכל המנועים ומספר המנוע (0 = המנוע הראשי)
+    private AtomicBoolean sharedStop;
+    private int helperId;
+
+    private BitBoardRepresentation board;
+
+    // טבלת טרנספוזיציה (יכולה להיות משותפת לכמה מנועים)
+    private final TranspositionTable table;
+
+    // מערכי מהלכים לכל עומק - מוקצים פעם אחת
+    private final int[][] moveBuffers = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+    private final int[][] scoreBuffers = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+
+    // סידור מהלכים (killers + היסטוריה) - ניתן לכיבוי לצורך השוואה
+    private final MoveOrderer orderer = new MoveOrderer(MAX_PLY);
+    private boolean moveOrdering = true;
+
+    // PVS וחלונות שאיפה - ניתנים לכיבוי לצורך השוואה לאלפא-בטא רגיל
+    private boolean principalVariationSearch = true;
+    private boolean aspirationWindows = true;
+
+    // הפחתות למהלכים מאוחרים וגיזום futility - ניתנים לכיבוי לצורך השוואה
+    private boolean lateMoveReductions = true;
+    private boolean futilityPruning = true;
+
+    // מספר מקסימלי של חסימות הכרחיות שהחיפוש השקט ממשיך מעבר לעומק
+    private int quiescenceDepth = DEFAULT_QUIESCENCE_DEPTH;
+
+    // טבלה משולשת של הרצף הצפוי: pv[ply] מתחיל במהלך של הצומת בעומק ply
+    private final int[][] pv = new int[MAX_PLY + 1][MAX_PLY + 1];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+
+    public AlphaBetaSearch() {
+        this(new TranspositionTable());
+    }
+
+    public AlphaBetaSearch(TranspositionTable table) {
+        this.maxDepth = DEFAULT_DEPTH;
+        this.table = table;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public void setMoveOrdering(boolean moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+
+    public boolean isMoveOrdering() {
+        return moveOrdering;
+    }
+
+    public void setPrincipalVariationSearch(boolean enabled) {
+        this.principalVariationSearch = enabled;
+    }
+
+    public void setAspirationWindows(boolean enabled) {
+        this.aspirationWindows = enabled;
+    }
+
+    public void setLateMoveReductions(boolean enabled) {
+        this.lateMoveReductions = enabled;
+    }
+
+    public void setFutilityPruning(boolean enabled) {
+        this.futilityPruning = enabled;
+    }
+
+    public void setQuiescenceDepth(int quiescenceDepth) {
+        this.quiescenceDepth = quiescenceDepth;
+    }
+
+    public int getQuiescenceDepth() {
+        return quiescenceDepth;
+    }
+
+    void setSharedStop(AtomicBoolean sharedStop) {
+        this.sharedStop = sharedStop;
+    }
+
+    /**
+     * מנועי עזר (מספר גדול מ-0) מתחילים את ההעמקה מעומק אחר ומשנים מעט את סדר המהלכים בשורש,
+     * כך שכל מנוע חוקר חלק אחר של העץ וממלא את הטבלה המשותפת
+     */
+    void setHelperId(int helperId) {
+        this.helperId = helperId;
+    }
+
+    // ========================
+    // ממשק ציבורי
+    // ========================
+
+    /**
+     * חיפוש המהלך המלא הטוב ביותר עבור שחקן בעומק המוגדר
+     * @param position הלוח הנוכחי (לא משתנה)
+     * @param player השחקן שתורו (0 או 1)
+     */
+    public SearchResult search(BitBoardRepresentation position, int player) {
+        return search(position, player, maxDepth);
+    }
+
+    public SearchResult search(BitBoardRepresentation position, int player, int depth) {
+        prepare(position, player, 0, 0);
+        return searchRoot(depth, SearchResult.NO_MOVE, -INFINITY, INFINITY);
+    }
+
+    /**
+     * העמקה הדרגתית: חיפוש בעומק 1, 2, 3... עד שתקציב הזמן או הצמתים נגמר
+     * מחזיר תמיד את המהלך הטוב ביותר מהעומק האחרון שהושלם
+     */
+    public SearchResult searchIterative(BitBoardRepresentation position, int player, SearchLimits limits) {
+        prepare(position, player, limits.timeMillis(), limits.maxNodes());
+
+        SearchResult best = null;
+        int bestMove = SearchResult.NO_MOVE;
+
+        int startDepth = Math.min(1 + (helperId & 1), limits.maxDepth());
+        for (int depth = startDepth; depth <= limits.maxDepth(); depth++) {
+            SearchResult result = searchAspiration(depth, bestMove, best);
+            if (result == null) {
+                break; // העומק לא הושלם - נשארים עם התוצאה הקודמת
+            }
+
+            best = result;
+            bestMove = result.move();
+
+            // ניצחון או הפסד בכפייה - אין טעם להעמיק
+            if (Math.abs(result.score()) >= WIN_THRESHOLD || !result.hasMove()) {
+                break;
+            }
+        }
+
+        if (best == null) {
+            // אפילו עומק 1 לא הושלם - חיפוש בעומק 1 ללא מגבלות, גם לא של הדגל המשותף
+            // (בחיפוש מקבילי הוא כבר דלוק אחרי שמנוע אחר סיים)
+            stopRequested = false;
+            deadlineNanos = 0;
+            nodeLimit = 0;
+            AtomicBoolean shared = sharedStop;
+            sharedStop = null;
+            try {
+                best = searchRoot(1, SearchResult.NO_MOVE, -INFINITY, INFINITY);
+            } finally {
+                sharedStop = shared;
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * חיפוש עומק אחד בחלון סביב הציון של העומק הקודם. כשהציון נופל מחוץ לחלון,
+     * הצד שנכשל מורחב פי ASPIRATION_GROWTH ומחפשים שוב, עד חלון מלא
+     */
+    private SearchResult searchAspiration(int depth, int preferredMove, SearchResult previous) {
+        if (!aspirationWindows || previous == null || Math.abs(previous.score()) >= WIN_THRESHOLD) {
+            return searchRoot(depth, preferredMove, -INFINITY, INFINITY);
+        }
+
+        int alphaDelta = ASPIRATION_WINDOW;
+        int betaDelta = ASPIRATION_WINDOW;
+        while (true) {
+            int alpha = Math.max(previous.score() - alphaDelta, -INFINITY);
+            int beta = Math.min(previous.score() + betaDelta, INFINITY);
+            SearchResult result = searchRoot(depth, preferredMove, alpha, beta);
+            if (result == null) {
+                return null;
+            }
+
+            if (result.score() <= alpha && alpha > -INFINITY) {
+                alphaDelta *= ASPIRATION_GROWTH; // כישלון נמוך
+            } else if (result.score() >= beta && beta < INFINITY) {
+                betaDelta *= ASPIRATION_GROWTH; // כישלון גבוה
+                preferredMove = result.move();
+            } else {
+                return result;
+            }
+        }
+    }
+
+    // בקשה לעצור את החיפוש הנוכחי (בטוח לקריאה מחוט אחר)
+    public void stop() {
+        stopRequested = true;
+    }
+
+    private void prepare(BitBoardRepresentation position, int player, long timeMillis, long maxNodes) {
+        board = position.copy();
+        board.setSideToMove(player);
+        nodes = 0;
+        if (sharedStop == null) {
+            table.newSearch(); // בחיפוש מקבילי הטבלה המשותפת מתקדמת פעם אחת מבחוץ
+        }
+        orderer.age();
+        stopRequested = false;
+        deadlineNanos = (timeMillis > 0) ? System.nanoTime() + timeMillis * 1_000_000L : 0;
+        nodeLimit = maxNodes;
+    }
+
+    /**
+     * חיפוש מהשורש בעומק נתון ובחלון נתון
+     * @param preferredMove מהלך שייבדק ראשון (הטוב ביותר מהעומק הקודם)
+     * @return התוצאה, או null אם החיפוש נעצר לפני שהסתיים
+     */
+    private SearchResult searchRoot(int depth, int preferredMove, int alpha, int beta) {
+        aborted = false;
+        pvLength[0] = 0;
+        int player = board.getSideToMove();
+        int[] moves = moveBuffers[0];
+        int count = MoveGenerator.generateMoves(board.getBlackBoard(), board.getWhiteBoard(), player, moves, 0);
+        if (quiescenceDepth > 0) {
+            // ניצחון מיידי נבדק ראשון, כדי שלא יבזבזו חסימות על המהלכים שלפניו
+            long own = (player == 0) ? board.getBlackBoard() : board.getWhiteBoard();
+            long opponent = (player == 0) ? board.getWhiteBoard() : board.getBlackBoard();
+            int win = ThreatSpaceSearch.findImmediateWin(own, opponent, player);
+            if (win != SearchResult.NO_MOVE) {
+                preferredMove = matchingMove(moves, count, win, own, opponent);
+            }
+        }
+        if (moveOrdering) {
+            sortMoves(moves, scoreBuffers[0], count, player, preferredMove, 0);
+        } else {
+            moveToFront(moves, count, preferredMove);
+        }
+
+        int bestMove = SearchResult.NO_MOVE;
+        int bestScore = -INFINITY;
+
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            makeMove(move);
+            int score = searchChild(i, depth - 1, 1, alpha, beta);
+            board.undoMove();
+
+            if (aborted) {
+                return null;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(0, move);
+                    if (alpha >= beta) {
+                        break; // כישלון גבוה בחלון השאיפה
+                    }
+                }
+            }
+        }
+
+        if (pvLength[0] == 0 || pv[0][0] != bestMove) {
+            // כישלון נמוך - אין רצף מדויק, רק המהלך
+            return new SearchResult(bestMove, bestScore, depth, nodes);
+        }
+        return new SearchResult(bestMove, bestScore, depth, nodes, extendFromTable(Arrays.copyOf(pv[0], pvLength[0])));
+    }
+
+    /**
+     * חיפוש בן (אחרי makeMove): הבן הראשון בחלון המלא, השאר בחלון אפס ובחיפוש חוזר
+     * אם הציון נופל בתוך החלון
+     */
+    private int searchChild(int index, int depth, int ply, int alpha, int beta) {
+        if (index == 0 || !principalVariationSearch) {
+            return -negamax(depth, ply, -beta, -alpha);
+        }
+        int score = -negamax(depth, ply, -alpha - 1, -alpha);
+        if (score > alpha && score < beta && !aborted) {
+            score = -negamax(depth, ply, -beta, -alpha);
+        }
+        return score;
+    }
+
+    // המהלך של הצומת בעומק ply ואחריו הרצף של הבן
+    private void updatePrincipalVariation(int ply, int move) {
+        pv[ply][ply] = move;
+        int childLength = pvLength[ply + 1];
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, childLength - (ply + 1));
+        pvLength[ply] = Math.max(childLength, ply + 1);
+    }
+
+    /**
+     * רצף שנקטע בגלל חיתוך מהטבלה מושלם לפי המהלכים השמורים בטבלה, כל עוד הם חוקיים
+     */
+    private int[] extendFromTable(int[] variation) {
+        if (variation.length >= MAX_PLY) {
+            return variation;
+        }
+
+        int played = 0;
+        for (int move : variation) {
+            makeMove(move);
+            played++;
+        }
+
+        int[] extended = Arrays.copyOf(variation, MAX_PLY);
+        int length = variation.length;
+        while (length < MAX_PLY && board.getStatus() == BitBoardRepresentation.BoardStatus.IN_PROGRESS) {
+            long entry = table.probe(board.getZobristHash());
+            int move = (entry == TranspositionTable.NO_ENTRY) ? SearchResult.NO_MOVE : TranspositionTable.getMove(entry);
+            if (move == SearchResult.NO_MOVE || !isLegal(move) || TranspositionTable.getBound(entry) != TranspositionTable.EXACT) {
+                break;
+            }
+            extended[length++] = move;
+            makeMove(move);
+            played++;
+        }
+
+        for (int i = 0; i < played; i++) {
+            board.undoMove();
+        }
+        return Arrays.copyOf(extended, length);
+    }
+
+    /**
+     * המהלך מהרשימה שמוביל לאותו מצב כמו move. מחולל המהלכים משמיט סיבובים שקולים
+     * (רביע ריק או סימטרי), ולכן מהלך שנבנה מבחוץ לא תמיד מופיע ברשימה באותו קידוד
+     */
+    private static int matchingMove(int[] moves, int count, int move, long own, long opponent) {
+        long targetOwn = rotate(own | (1L << MoveGenerator.getPosition(move)), move);
+        long targetOpponent = rotate(opponent, move);
+        for (int i = 0; i < count; i++) {
+            int candidate = moves[i];
+            if (rotate(own | (1L << MoveGenerator.getPosition(candidate)), candidate) == targetOwn
+                    && rotate(opponent, candidate) == targetOpponent) {
+                return candidate;
+            }
+        }
+        return SearchResult.NO_MOVE;
+    }
+
+    private static long rotate(long pieces, int move) {
+        return BitBoardRepresentation.rotateQuadrant(pieces, MoveGenerator.getQuadrant(move), MoveGenerator.isClockwise(move));
+    }
+
+    private boolean isLegal(int move) {
+        return (board.getEmptyMask() & (1L << MoveGenerator.getPosition(move))) != 0;
+    }
+
+    // מיון מלא של רשימת המהלכים לפי ציון הסידור (בשורש כל המהלכים נבדקים)
+    private void sortMoves(int[] moves, int[] scores, int count, int side, int firstMove, int ply) {
+        long own = (side == 0) ? board.getBlackBoard() : board.getWhiteBoard();
+        long opponent = (side == 0) ? board.getWhiteBoard() : board.getBlackBoard();
+        orderer.scoreMoves(moves, scores, count, own, opponent, firstMove, ply);
+        if (helperId != 0) {
+            for (int i = 0; i < count; i++) {
+                scores[i] += ((moves[i] * 0x9E3779B1) ^ (helperId * 0x85EBCA6B)) >>> 26;
+            }
+        }
+        for (int i = 0; i < count - 1; i++) {
+            MoveOrderer.pickNext(moves, scores, i, count);
+        }
+    }
+
+    private static void moveToFront(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = move;
+                return;
+            }
+        }
+    }
+
+    // בדיקה תקופתית אם יש לעצור את החיפוש
+    private boolean shouldStop() {
+        if (aborted) {
+            return true;
+        }
+        if ((nodes & CHECK_INTERVAL_MASK) == 0) {
+            if (stopRequested
+                    || (sharedStop != null && sharedStop.get())
+                    || (deadlineNanos != 0 && System.nanoTime() >= deadlineNanos)
+                    || (nodeLimit != 0 && nodes >= nodeLimit)) {
+                aborted = true;
+            }
+        }
+        return aborted;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    // ========================
+    // חיפוש
+    // ========================
+
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        nodes++;
+        pvLength[ply] = ply;
+        if (shouldStop()) {
+            return 0;
+        }
+
+        int side = board.getSideToMove();
+        long black = board.getBlackBoard();
+        long white = board.getWhiteBoard();
+
+        int terminal = terminalScore(black, white, side, ply);
+        if (terminal != NOT_TERMINAL) {
+            return terminal;
+        }
+
+        if (depth <= 0 || ply >= MAX_PLY) {
+            return quiesce(ply, alpha, beta, quiescenceDepth);
+        }
+        if (quiescenceDepth > 0 && hasImmediateWin(black, white, side)) {
+            return WIN_SCORE - (ply + 1);
+        }
+
+        // בדיקה בטבלת הטרנספוזיציה
+        long hash = board.getZobristHash();
+        long entry = table.probe(hash);
+        int ttMove = SearchResult.NO_MOVE;
+        if (entry != TranspositionTable.NO_ENTRY) {
+            ttMove = TranspositionTable.getMove(entry);
+        }
+        if (entry != TranspositionTable.NO_ENTRY && TranspositionTable.getDepth(entry) >= depth) {
+            int ttScore = scoreFromTable(TranspositionTable.getScore(entry), ply);
+            int bound = TranspositionTable.getBound(entry);
+            if (bound == TranspositionTable.EXACT
+                    || (bound == TranspositionTable.LOWER_BOUND && ttScore >= beta)
+                    || (bound == TranspositionTable.UPPER_BOUND && ttScore <= alpha)) {
+                return ttScore;
+            }
+        }
+
+        int originalAlpha = alpha;
+        int[] moves = moveBuffers[ply];
+        int[] scores = scoreBuffers[ply];
+        int count = MoveGenerator.generateMoves(black, white, side, moves, 0);
+        int bestScore = -INFINITY;
+        int bestMove = SearchResult.NO_MOVE;
+
+        long own = (side == 0) ? black : white;
+        long opponent = (side == 0) ? white : black;
+        if (moveOrdering) {
+            orderer.scoreMoves(moves, scores, count, own, opponent, ttMove, ply);
+        }
+
+        // כשליריב יש ניצחון מיידי כל מהלך הוא טקטי - לא מפחיתים ולא גוזמים
+        boolean pruningAllowed = (lateMoveReductions || futilityPruning)
+                && !hasImmediateWin(black, white, 1 - side);
+
+        // futility: רק בצמתים שאינם על הרצף הראשי ורחוק מציוני ניצחון
+        int futilityBound = -INFINITY;
+        if (futilityPruning && pruningAllowed && depth < FUTILITY_MARGINS.length
+                && beta - alpha == 1 && Math.abs(alpha) < WIN_THRESHOLD) {
+            int bound = evaluate(black, white, side) + FUTILITY_MARGINS[depth];
+            if (bound <= alpha) {
+                futilityBound = bound;
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            if (moveOrdering) {
+                MoveOrderer.pickNext(moves, scores, i, count);
+            }
+            int move = moves[i];
+            boolean quiet = pruningAllowed && i > 0 && move != ttMove && isQuietMove(move, own, opponent);
+
+            if (quiet && futilityBound != -INFINITY) {
+                bestScore = Math.max(bestScore, futilityBound);
+                continue; // גם במקרה הטוב המהלך לא יגיע לאלפא
+            }
+
+            makeMove(move);
+            int score;
+            if (quiet && lateMoveReductions && depth >= LMR_MIN_DEPTH && i >= LMR_FULL_DEPTH_MOVES) {
+                int reduction = (i >= LMR_DEEP_MOVES && depth > LMR_MIN_DEPTH) ? 2 : 1;
+                score = -negamax(depth - 1 - reduction, ply + 1, -alpha - 1, -alpha);
+                if (score > alpha && !aborted) {
+                    score = searchChild(i, depth - 1, ply + 1, alpha, beta); // חיפוש חוזר בעומק מלא
+                }
+            } else {
+                score = searchChild(i, depth - 1, ply + 1, alpha, beta);
+            }
+            board.undoMove();
+
+            if (aborted) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                    if (alpha >= beta) {
+                        if (moveOrdering) {
+                            orderer.recordCutoff(move, depth, ply);
+                        }
+                        break; // גיזום בטא
+                    }
+                }
+            }
+        }
+
+        int bound = (bestScore >= beta) ? TranspositionTable.LOWER_BOUND
+                : (bestScore > originalAlpha) ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        table.store(hash, bestMove, scoreToTable(bestScore, ply), depth, bound);
+
+        return bestScore;
+    }
+
+    /**
+     * חיפוש שקט בקצה העומק: ניצחון מיידי (כולל שורה שנסגרת בסיבוב) מוחזר מיד,
+     * וכשליריב יש ניצחון מיידי נבדקות רק החסימות - מהלכים שאחריהם כבר אין לו כזה.
+     * מצב בלי איום מיידי הוא שקט ומוערך סטטית
+     * @param extensions מספר החסימות שעוד מותר להמשיך
+     */
+    private int quiesce(int ply, int alpha, int beta, int extensions) {
+        int side = board.getSideToMove();
+        long black = board.getBlackBoard();
+        long white = board.getWhiteBoard();
+
+        if (extensions <= 0 || ply >= MAX_PLY) {
+            return evaluate(black, white, side);
+        }
+        if (hasImmediateWin(black, white, side)) {
+            return WIN_SCORE - (ply + 1);
+        }
+        if (!hasImmediateWin(black, white, 1 - side)) {
+            return evaluate(black, white, side);
+        }
+
+        // אם אף מהלך לא חוסם - היריב מנצח במהלך הבא; ניצחון שלנו לכל המוקדם בעוד שלושה מהלכים
+        int bestScore = -(WIN_SCORE - (ply + 2));
+        if (bestScore >= beta) {
+            return bestScore;
+        }
+        int bestPossible = WIN_SCORE - (ply + 3);
+        if (bestPossible <= alpha) {
+            return bestPossible;
+        }
+        int[] moves = moveBuffers[ply];
+        int[] needsCheck = scoreBuffers[ply];
+        int count = blockingCandidates(black, white, side, moves, needsCheck);
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            makeMove(move);
+            if (needsCheck[i] != 0 && hasImmediateWin(board.getBlackBoard(), board.getWhiteBoard(), 1 - side)) {
+                board.undoMove();
+                continue; // לא חוסם
+            }
+            int score = -quiesceChild(ply + 1, -beta, -alpha, extensions - 1);
+            board.undoMove();
+
+            if (aborted) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * מהלכים שעשויים לחסום את הניצחון המיידי של היריב. אחרי הסיבוב שלנו הכלים של היריב
+     * לא תלויים במשבצת שבחרנו, ולכן לכל סיבוב מחושבות פעם אחת משבצות הניצחון שלו:
+     * אם אין כאלה - כל הנחה עם הסיבוב חוסמת; אחרת נשארות רק ההנחה על המשבצת היחידה שלו
+     * ולשחור גם הנחות שמשלימות לו שורה (רצף לשניהם - השחור מנצח), ואותן יש לבדוק אחרי המהלך
+     * @param needsCheck 1 למהלך שיש לוודא אחרי ביצועו שהוא אכן חוסם
+     */
+    private static int blockingCandidates(long black, long white, int side, int[] moves, int[] needsCheck) {
+        long own = (side == 0) ? black : white;
+        long opponent = (side == 0) ? white : black;
+        long empty = MoveGenerator.emptyCells(black, white);
+
+        int count = 0;
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            for (int direction = 0; direction < 2; direction++) {
+                boolean clockwise = direction == 1;
+                long rotatedOwn = BitBoardRepresentation.rotateQuadrant(own, quadrant, clockwise);
+                long rotatedOpponent = BitBoardRepresentation.rotateQuadrant(opponent, quadrant, clockwise);
+
+                long threats = ThreatSpaceSearch.winningPlacements(rotatedOpponent, rotatedOwn, 1 - side);
+                long cells;
+                if (threats == 0) {
+                    cells = empty;
+                } else {
+                    long single = (Long.bitCount(threats) == 1) ? threats : 0;
+                    // לשחור: הנחה שנותנת לו רצף גם בסיבוב של היריב הופכת את הניצחון של הלבן לניצחון שלו
+                    long bothWin = (side == 0) ? ThreatSpaceSearch.lineCompletingPlacements(rotatedOwn, rotatedOpponent) : 0;
+                    // משבצות אחרי הסיבוב -> משבצות ההנחה לפני הסיבוב
+                    cells = BitBoardRepresentation.rotateQuadrant(single | bothWin, quadrant, !clockwise) & empty;
+                }
+
+                for (; cells != 0; cells &= cells - 1) {
+                    moves[count] = MoveGenerator.encode(Long.numberOfTrailingZeros(cells), quadrant, direction);
+                    needsCheck[count] = (threats == 0) ? 0 : 1;
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * מהלך שקט: ההנחה לא יוצרת רביעייה בחלון פתוח ולא חוסמת רביעייה של היריב.
+     * הסיבוב לא נבדק - שורה שנסגרת בסיבוב מטופלת בחיפוש השקט בקצה העומק
+     */
+    private static boolean isQuietMove(int move, long own, long opponent) {
+        return !ThreatDetector.makesOrBlocksFour(own, opponent, MoveGenerator.getPosition(move));
+    }
+
+    private static boolean hasImmediateWin(long black, long white, int side) {
+        long own = (side == 0) ? black : white;
+        long opponent = (side == 0) ? white : black;
+        return ThreatSpaceSearch.findImmediateWin(own, opponent, side) != SearchResult.NO_MOVE;
+    }
+
+    // צומת בחיפוש השקט אחרי מהלך: בדיקות עצירה ומצב סופי כמו ב-negamax
+    private int quiesceChild(int ply, int alpha, int beta, int extensions) {
+        nodes++;
+        pvLength[ply] = ply;
+        if (shouldStop()) {
+            return 0;
+        }
+        int terminal = terminalScore(board.getBlackBoard(), board.getWhiteBoard(), board.getSideToMove(), ply);
+        if (terminal != NOT_TERMINAL) {
+            return terminal;
+        }
+        return quiesce(ply, alpha, beta, extensions);
+    }
+
+    // ציוני ניצחון נשמרים בטבלה ביחס לצומת ולא לשורש, כדי שיהיו נכונים בכל עומק שבו המצב מופיע
+    private static int scoreToTable(int score, int ply) {
+        if (score >= WIN_THRESHOLD) {
+            return score + ply;
+        }
+        if (score <= -WIN_THRESHOLD) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= WIN_THRESHOLD) {
+            return score - ply;
+        }
+        if (score <= -WIN_THRESHOLD) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    private void makeMove(int move) {
+        board.doMove(MoveGenerator.getPosition(move), MoveGenerator.getQuadrant(move), MoveGenerator.getDirection(move));
+    }
+
+    /**
+     * ציון סופי אם המשחק הסתיים: ניצחון מהיר עדיף על איטי, לוח מלא - תיקו.
+     * כשלשניהם יש רצף השחור מנצח, כמו ב-PentagoModel
+     */
+    static int terminalScore(long black, long white, int side, int ply) {
+        switch (BitBoardRepresentation.getStatus(black, white)) {
+            case BLACK_WINS:
+            case BOTH_WIN:
+                return (side == 0) ? WIN_SCORE - ply : -(WIN_SCORE - ply);
+            case WHITE_WINS:
+                return (side == 1) ? WIN_SCORE - ply : -(WIN_SCORE - ply);
+            case DRAW:
+                return 0;
+            default:
+                return NOT_TERMINAL;
+        }
+    }
+
+    /**
+     * הערכה סטטית מנקודת המבט של השחקן שתורו: מאזן האיומים ומשקלי המשבצות
+     */
+    static int evaluate(long black, long white, int side) {
+        long own = (side == 0) ? black : white;
+        long opponent = (side == 0) ? white : black;
+        return ThreatDetector.threatBalance(black, white, side) + cellWeight(own) - cellWeight(opponent);
+    }
+
+    private static int cellWeight(long pieces) {
+        int sum = 0;
+        for (long cells = pieces; cells != 0; cells &= cells - 1) {
+            sum += CELL_WEIGHTS[Long.numberOfTrailingZeros(cells)];
+        }
+        return sum;
+    }
+
+    private static int[] flattenWeights(int[][] weights) {
+        int[] flat = new int[weights.length * weights.length];
+        for (int row = 0; row < weights.length; row++) {
+            for (int col = 0; col < weights.length; col++) {
+                flat[row * weights.length + col] = weights[row][col];
+            }
+        }
+        return flat;
+    }
+}
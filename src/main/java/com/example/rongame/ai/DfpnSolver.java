@@ -0,0 +1,448 @@
+package com.example.rongame.ai;
+
+import com.example.rongame.model.BitBoardRepresentation;
+
+import java.util.Arrays;
+
+/**
+ * פותר proof-number בשיטת DFPN: מוכיח או מפריך ניצחון בכפייה של שחקן נתון מכל מצב.
+ *
+ * צמתי "או" - תור התוקף (מספיק בן מוכח אחד), צמתי "וגם" - תור המגן (כל הבנים צריכים להיות מוכחים).
+ * תיקו נחשב הפרכה. מספרי ההוכחה וההפרכה נשמרים בטבלת גיבוב בגודל קבוע עם דליים של שתי רשומות:
+ * אחת נשמרת לפי כמות העבודה שהושקעה, והשנייה מוחלפת תמיד - כך הזיכרון חסום.
+ * הטבלה נשמרת בין קריאות (התוקף הוא חלק מהמפתח), כך שבדיקה של כמה מהלכים מאותו משחק משתמשת בעבודה קודמת.
+ * בפנטגו אין חזרות (כלים רק מתווספים), ולכן אין בעיית היסטוריה בטבלה.
+ *
+ * הרצה: java com.example.rongame.ai.DfpnSolver [36 תווים: . x o] [שחקן שתורו: x/o] [תוקף: x/o] [תקציב צמתים]
+ */
+public class DfpnSolver {
+
+    public static final int DEFAULT_TABLE_BITS = 20;
+    public static final long DEFAULT_NODE_BUDGET = 10_000_000L;
+
+    private static final int INFINITY = Integer.MAX_VALUE / 4;
+    private static final int MAX_PLY = 36;
+    private static final int SEEN_SIZE = 512;
+
+    /**
+     * @param move במצב מוכח שבו התוקף בתור - המהלך המנצח
+     */
+    public record Result(Outcome outcome, int move, long nodes) {
+    }
+
+    public enum Outcome {
+        PROVEN,    // לתוקף יש ניצחון בכפייה
+        DISPROVEN, // אין ניצחון בכפייה (המגן מנצח או משיג תיקו)
+        UNKNOWN    // תקציב הצמתים נגמר
+    }
+
+    // טבלת הגיבוב: לכל דלי שתי רשומות (זוגית - לפי עבודה, אי-זוגית - החלפה תמידית)
+    private final long[] keyBlack;
+    private final long[] keyWhite;
+    private final int[] proofNumbers;
+    private final int[] disproofNumbers;
+    private final long[] work;
+    private final int bucketMask;
+
+    private final int[][] moveBuffers = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+    private final long[][] childBlackBuffers = new long[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+    private final long[][] childWhiteBuffers = new long[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+
+    // זיהוי בנים זהים בתוך צומת (טבלה קטנה שמתאפסת בעזרת חותמת)
+    private final long[] seenBlack = new long[SEEN_SIZE];
+    private final long[] seenWhite = new long[SEEN_SIZE];
+    private final int[] seenStamps = new int[SEEN_SIZE];
+    private int stamp;
+
+    private int attacker;
+    private long nodes;
+    private long nodeBudget;
+
+    // תוצאת החיפוש של הצומת האחרון (כדי לא להקצות זוג לכל קריאה)
+    private int lastProof;
+    private int lastDisproof;
+
+    public DfpnSolver() {
+        this(DEFAULT_TABLE_BITS);
+    }
+
+    public DfpnSolver(int tableBits) {
+        int entries = 1 << tableBits;
+        keyBlack = new long[entries];
+        keyWhite = new long[entries];
+        proofNumbers = new int[entries];
+        disproofNumbers = new int[entries];
+        work = new long[entries];
+        bucketMask = (entries >>> 1) - 1;
+    }
+
+    public void clear() {
+        Arrays.fill(keyBlack, 0);
+        Arrays.fill(keyWhite, 0);
+        Arrays.fill(work, 0);
+    }
+
+    /**
+     * הוכחה או הפרכה של ניצחון של attacker כשתור sideToMove
+     * @param nodeBudget מספר הצמתים המקסימלי (0 - ללא הגבלה)
+     */
+    public Result solve(BitBoardRepresentation board, int sideToMove, int attacker, long nodeBudget) {
+        return solve(board.getBlackBoard(), board.getWhiteBoard(), sideToMove, attacker, nodeBudget);
+    }
+
+    public Result solve(long black, long white, int sideToMove, int attacker, long nodeBudget) {
+        this.attacker = attacker;
+        this.nodes = 0;
+        this.nodeBudget = (nodeBudget == 0) ? Long.MAX_VALUE : nodeBudget;
+
+        int terminal = terminalValue(black, white);
+        if (terminal >= 0) {
+            return new Result(terminal == 0 ? Outcome.PROVEN : Outcome.DISPROVEN, SearchResult.NO_MOVE, 0);
+        }
+
+        mid(black, white, sideToMove, 0, INFINITY - 1, INFINITY - 1);
+        Outcome outcome = (lastProof == 0) ? Outcome.PROVEN
+                : (lastDisproof == 0) ? Outcome.DISPROVEN : Outcome.UNKNOWN;
+
+        int move = SearchResult.NO_MOVE;
+        if (outcome == Outcome.PROVEN && sideToMove == attacker) {
+            move = findProvenMove(black, white, sideToMove);
+        }
+        return new Result(outcome, move, nodes);
+    }
+
+    /**
+     * בדיקת החלטה של המנוע: האם אחרי move לשחקן player עדיין יש ניצחון בכפייה.
+     * PROVEN - המהלך שומר על ניצחון, DISPROVEN - אין ניצחון אחרי המהלך
+     * (כדאי להשוות ל-solve של המצב שלפני המהלך כדי לזהות ניצחון שהוחמץ)
+     */
+    public Result verifyMove(BitBoardRepresentation board, int player, int move, long nodeBudget) {
+        long black = applyMove(board.getBlackBoard(), player, move, 0);
+        long white = applyMove(board.getWhiteBoard(), player, move, 1);
+        Result result = solve(black, white, 1 - player, player, nodeBudget);
+        return new Result(result.outcome(), move, result.nodes());
+    }
+
+    // ========================
+    // חיפוש
+    // ========================
+
+    /**
+     * הרחבה חוזרת של צומת עד שמספר ההוכחה או ההפרכה שלו חוצה את הסף
+     * התוצאה נשמרת ב-lastProof / lastDisproof ובטבלה
+     */
+    private void mid(long black, long white, int side, int ply, int proofThreshold, int disproofThreshold) {
+        nodes++;
+        boolean orNode = side == attacker;
+        long own = (attacker == 0) ? black : white;
+        long opponent = (attacker == 0) ? white : black;
+
+        // בדיקות מהירות: ניצחון מיידי של הצד שבתור מכריע את הצומת
+        if (orNode && ThreatSpaceSearch.findImmediateWin(own, opponent, attacker) != SearchResult.NO_MOVE) {
+            storeAndReturn(black, white, side, 0, INFINITY);
+            return;
+        }
+        if (!orNode && ThreatSpaceSearch.findImmediateWin(opponent, own, 1 - attacker) != SearchResult.NO_MOVE) {
+            storeAndReturn(black, white, side, INFINITY, 0);
+            return;
+        }
+
+        int[] moves = moveBuffers[ply];
+        long[] childBlacks = childBlackBuffers[ply];
+        long[] childWhites = childWhiteBuffers[ply];
+        int count = expand(black, white, side, orNode, moves, childBlacks, childWhites);
+        if (count < 0) {
+            storeAndReturn(black, white, side, INFINITY, 0); // למגן יש מהלך שמסיים בלי ניצחון של התוקף
+            return;
+        }
+        if (count == 0) {
+            // בצומת "או" - אין מהלך שלא מפסיד/מסיים בתיקו; בצומת "וגם" - כל מהלך של המגן מפסיד מיד
+            if (orNode) {
+                storeAndReturn(black, white, side, INFINITY, 0);
+            } else {
+                storeAndReturn(black, white, side, 0, INFINITY);
+            }
+            return;
+        }
+        long startNodes = nodes;
+
+        while (true) {
+            // חישוב מספרי הצומת מהבנים, ובחירת הבן הטוב ביותר
+            int best = -1;
+            int bestValue = INFINITY + 1;
+            int secondValue = INFINITY;
+            int bestOther = 0;
+            long sum = 0;
+
+            for (int i = 0; i < count; i++) {
+                if (!lookup(childBlacks[i], childWhites[i], 1 - side)) {
+                    lastProof = 1;
+                    lastDisproof = 1;
+                }
+                int selectValue = orNode ? lastProof : lastDisproof;
+                int sumValue = orNode ? lastDisproof : lastProof;
+                sum = Math.min(sum + sumValue, INFINITY);
+                if (selectValue < bestValue) {
+                    secondValue = bestValue;
+                    bestValue = selectValue;
+                    bestOther = sumValue;
+                    best = i;
+                } else if (selectValue < secondValue) {
+                    secondValue = selectValue;
+                }
+                if (selectValue == 0) {
+                    sum = INFINITY; // בן מכריע
+                    break;
+                }
+            }
+
+            int proof = orNode ? bestValue : (int) sum;
+            int disproof = orNode ? (int) sum : bestValue;
+            if (proof >= proofThreshold || disproof >= disproofThreshold || nodes >= nodeBudget) {
+                store(black, white, side, proof, disproof, nodes - startNodes);
+                lastProof = proof;
+                lastDisproof = disproof;
+                return;
+            }
+
+            // ספים לבן הנבחר
+            secondValue = Math.min(secondValue, INFINITY - 1);
+            int childProof;
+            int childDisproof;
+            if (orNode) {
+                childProof = Math.min(proofThreshold, secondValue + 1);
+                childDisproof = (int) Math.min((long) disproofThreshold - disproof + bestOther, INFINITY - 1);
+            } else {
+                childDisproof = Math.min(disproofThreshold, secondValue + 1);
+                childProof = (int) Math.min((long) proofThreshold - proof + bestOther, INFINITY - 1);
+            }
+            mid(childBlacks[best], childWhites[best], 1 - side, ply + 1, childProof, childDisproof);
+        }
+    }
+
+    /**
+     * יצירת הבנים של צומת: מצבים זהים (למשל סיבוב רבע ריק) נספרים פעם אחת,
+     * ובנים סופיים שלא משפיעים על התוצאה מושמטים
+     * @return מספר הבנים שנשארו, או -1 אם בצומת "וגם" יש למגן מהלך שמסיים את המשחק בלי ניצחון של התוקף
+     */
+    private int expand(long black, long white, int side, boolean orNode,
+                       int[] moves, long[] childBlacks, long[] childWhites) {
+        int generated = MoveGenerator.generateMoves(black, white, side, moves, 0);
+        if (++stamp == 0) {
+            Arrays.fill(seenStamps, 0);
+            stamp = 1;
+        }
+
+        int count = 0;
+        for (int i = 0; i < generated; i++) {
+            int move = moves[i];
+            long childBlack = applyMove(black, side, move, 0);
+            long childWhite = applyMove(white, side, move, 1);
+            if (!markSeen(childBlack, childWhite)) {
+                continue;
+            }
+
+            int terminal = terminalValue(childBlack, childWhite);
+            if (terminal == 1 && !orNode) {
+                return -1;
+            }
+            if (terminal >= 0) {
+                continue; // בצומת "או" - בן מופרך, בצומת "וגם" - בן מוכח: אף אחד מהם לא משנה את התוצאה
+            }
+            moves[count] = move;
+            childBlacks[count] = childBlack;
+            childWhites[count] = childWhite;
+            count++;
+        }
+        return count;
+    }
+
+    // false אם המצב כבר הופיע בין הבנים של הצומת הנוכחי
+    private boolean markSeen(long black, long white) {
+        long h = black * 0x9E3779B97F4A7C15L ^ white * 0xC2B2AE3D27D4EB4FL;
+        int index = (int) (h >>> 55);
+        while (seenStamps[index] == stamp) {
+            if (seenBlack[index] == black && seenWhite[index] == white) {
+                return false;
+            }
+            index = (index + 1) & (SEEN_SIZE - 1);
+        }
+        seenStamps[index] = stamp;
+        seenBlack[index] = black;
+        seenWhite[index] = white;
+        return true;
+    }
+
+    // מספרי ההוכחה וההפרכה של הבן אחרי מהלך - מצב סופי, מהטבלה, או (1, 1) לצומת חדש
+    private void lookupChild(long black, long white, int side, int move) {
+        long childBlack = applyMove(black, side, move, 0);
+        long childWhite = applyMove(white, side, move, 1);
+
+        int terminal = terminalValue(childBlack, childWhite);
+        if (terminal == 0) {
+            lastProof = 0;
+            lastDisproof = INFINITY;
+        } else if (terminal == 1) {
+            lastProof = INFINITY;
+            lastDisproof = 0;
+        } else if (!lookup(childBlack, childWhite, 1 - side)) {
+            lastProof = 1;
+            lastDisproof = 1;
+        }
+    }
+
+    // 0 - התוקף ניצח, 1 - המגן ניצח או תיקו, -1 - המשחק נמשך (רצף לשניהם - השחור מנצח, כמו ב-PentagoModel)
+    private int terminalValue(long black, long white) {
+        switch (BitBoardRepresentation.getStatus(black, white)) {
+            case BLACK_WINS:
+            case BOTH_WIN:
+                return (attacker == 0) ? 0 : 1;
+            case WHITE_WINS:
+                return (attacker == 1) ? 0 : 1;
+            case DRAW:
+                return 1;
+            default:
+                return -1;
+        }
+    }
+
+    // במצב מוכח: הבן שמספר ההוכחה שלו 0
+    private int findProvenMove(long black, long white, int side) {
+        int immediate = ThreatSpaceSearch.findImmediateWin(side == 0 ? black : white, side == 0 ? white : black, side);
+        if (immediate != SearchResult.NO_MOVE) {
+            return immediate;
+        }
+        int[] moves = moveBuffers[0];
+        int count = MoveGenerator.generateMoves(black, white, side, moves, 0);
+        for (int i = 0; i < count; i++) {
+            lookupChild(black, white, side, moves[i]);
+            if (lastProof == 0) {
+                return moves[i];
+            }
+        }
+        return SearchResult.NO_MOVE;
+    }
+
+    private static long applyMove(long pieces, int side, int move, int owner) {
+        if (side == owner) {
+            pieces |= 1L << MoveGenerator.getPosition(move);
+        }
+        return BitBoardRepresentation.rotateQuadrant(pieces, MoveGenerator.getQuadrant(move), MoveGenerator.isClockwise(move));
+    }
+
+    // ========================
+    // טבלת גיבוב
+    // ========================
+
+    private int bucket(long black, long white, int side) {
+        long h = black * 0x9E3779B97F4A7C15L ^ (white + side + 2L * attacker) * 0xC2B2AE3D27D4EB4FL;
+        h ^= h >>> 31;
+        return ((int) h & bucketMask) << 1;
+    }
+
+    // ביט 41 מסמן רשומה תפוסה; התוקף חלק מהמפתח, כך שהטבלה נשמרת בין פתרונות
+    private long tableKey(long white, int side) {
+        return white | ((long) side << 40) | (1L << 41) | ((long) attacker << 42);
+    }
+
+    // קריאה לתוך lastProof / lastDisproof; false אם המצב לא בטבלה
+    private boolean lookup(long black, long white, int side) {
+        long whiteKey = tableKey(white, side);
+        int index = bucket(black, white, side);
+        for (int slot = index; slot < index + 2; slot++) {
+            if (keyBlack[slot] == black && keyWhite[slot] == whiteKey) {
+                lastProof = proofNumbers[slot];
+                lastDisproof = disproofNumbers[slot];
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void store(long black, long white, int side, int proof, int disproof, long effort) {
+        long whiteKey = tableKey(white, side);
+        int index = bucket(black, white, side);
+
+        int slot;
+        if (keyBlack[index] == black && keyWhite[index] == whiteKey) {
+            slot = index;
+        } else if (keyBlack[index + 1] == black && keyWhite[index + 1] == whiteKey) {
+            slot = index + 1;
+        } else if (effort >= work[index]) {
+            // הרשומה הקודמת עוברת למקום ההחלפה התמידית
+            keyBlack[index + 1] = keyBlack[index];
+            keyWhite[index + 1] = keyWhite[index];
+            proofNumbers[index + 1] = proofNumbers[index];
+            disproofNumbers[index + 1] = disproofNumbers[index];
+            work[index + 1] = work[index];
+            slot = index;
+        } else {
+            slot = index + 1;
+        }
+
+        keyBlack[slot] = black;
+        keyWhite[slot] = whiteKey;
+        proofNumbers[slot] = proof;
+        disproofNumbers[slot] = disproof;
+        work[slot] = Math.max(work[slot], effort);
+    }
+
+    private void storeAndReturn(long black, long white, int side, int proof, int disproof) {
+        store(black, white, side, proof, disproof, 1);
+        lastProof = proof;
+        lastDisproof = disproof;
+    }
+
+    // ========================
+    // פקודת "פתור מצב"
+    // ========================
+
+    public static void main(String[] args) {
+        if (args.length < 3) {
+            System.out.println("Usage: DfpnSolver <36 cells of . x o, row by row> <side to move x|o> <attacker x|o> [node budget]");
+            return;
+        }
+        String cells = args[0];
+        if (cells.length() != 36) {
+            throw new IllegalArgumentException("Expected 36 cells, got " + cells.length());
+        }
+
+        long black = 0;
+        long white = 0;
+        for (int i = 0; i < cells.length(); i++) {
+            char c = cells.charAt(i);
+            if (c == 'x') {
+                black |= 1L << i;
+            } else if (c == 'o') {
+                white |= 1L << i;
+            } else if (c != '.') {
+                throw new IllegalArgumentException("Unexpected cell '" + c + "' at " + i);
+            }
+        }
+        int side = parseSide(args[1]);
+        int attacker = parseSide(args[2]);
+        long budget = (args.length > 3) ? Long.parseLong(args[3]) : DEFAULT_NODE_BUDGET;
+
+        long start = System.nanoTime();
+        Result result = new DfpnSolver().solve(black, white, side, attacker, budget);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Result: " + result.outcome() + " (" + result.nodes() + " nodes, " + millis + " ms)");
+        if (result.move() != SearchResult.NO_MOVE) {
+            int[] move = new SearchResult(result.move(), 0, 0, 0).toArray();
+            System.out.println("Winning move: row " + move[0] + ", col " + move[1]
+                    + ", quadrant " + move[2] + (move[3] == 1 ? " clockwise" : " counter-clockwise"));
+        }
+    }
+
+    private static int parseSide(String side) {
+        switch (side) {
+            case "x":
+                return 0;
+            case "o":
+                return 1;
+            default:
+                throw new IllegalArgumentException("Side must be x or o: " + side);
+        }
+    }
+}
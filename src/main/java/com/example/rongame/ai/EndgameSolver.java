@@ -0,0 +1,297 @@
+package com.example.rongame.ai;
+
+import com.example.rongame.model.BitBoardRepresentation;
+
+import java.util.Arrays;
+
+/**
+ * פותר מדויק לסוף המשחק: כשנשארו מעט משבצות ריקות, מחשב ניצחון/תיקו/הפסד מוכחים
+ * ואת המהלך עם הניצחון המהיר ביותר (או ההגנה הארוכה ביותר כשההפסד מוכח).
+ *
+ * החיפוש רץ ישירות על שני ה-long של הלוח (שמירה ושחזור לפי עומק, ללא undo stack),
+ * בודק קודם מהלכים שמנצחים מיד, ושומר תוצאות בטבלת גיבוב ייעודית עם אימות מלא של הלוח.
+ * קודם מוכרעת התוצאה בחלון צר סביב 0, ורק אחר כך מחושב המרחק לסוף.
+ * מהלך שמשלים רצף לשני השחקנים הוא ניצחון של השחור, כמו ב-PentagoModel.
+ */
+public class EndgameSolver {
+
+    public static final int DEFAULT_MAX_EMPTIES = 12;
+    public static final long DEFAULT_NODE_BUDGET = 5_000_000L;
+
+    private static final int WIN_SCORE = AlphaBetaSearch.WIN_SCORE;
+    private static final int MAX_PLY = 36;
+    private static final int DEFAULT_TABLE_BITS = 20;
+
+    // בדיקת הזמן פעם בכל כך הרבה צמתים
+    private static final int CHECK_INTERVAL_MASK = 1023;
+
+    // גבולות ברשומה בטבלה
+    private static final int EXACT = 1;
+    private static final int LOWER_BOUND = 2;
+    private static final int UPPER_BOUND = 3;
+
+    /**
+     * התוצאה המוכחת מנקודת המבט של השחקן שתורו
+     */
+    public enum Outcome {
+        WIN, DRAW, LOSS, UNKNOWN
+    }
+
+    /**
+     * @param move המהלך המומלץ (מקודד MoveGenerator)
+     * @param distance מספר המהלכים (של שני השחקנים) עד הניצחון או ההפסד במשחק מיטבי;
+     *                 בתיקו - מספר המשבצות הריקות
+     * @param nodes מספר הצמתים שנבדקו
+     */
+    public record Result(Outcome outcome, int move, int distance, long nodes) {
+
+        public boolean isSolved() {
+            return outcome != Outcome.UNKNOWN;
+        }
+    }
+
+    // טבלת גיבוב: הלוח המלא כמפתח (לבן כולל ביט של השחקן שתורו) ונתונים ארוזים
+    private final long[] tableBlack;
+    private final long[] tableWhite;
+    private final long[] tableData;
+    private final int tableMask;
+
+    private final MoveOrderer orderer = new MoveOrderer(MAX_PLY);
+    private final int[][] moveBuffers = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+    private final int[][] scoreBuffers = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+
+    private long nodes;
+    private long nodeBudget;
+    private long deadlineNanos;
+    private int rootBestMove;
+    private boolean aborted;
+
+    public EndgameSolver() {
+        this(DEFAULT_TABLE_BITS);
+    }
+
+    public EndgameSolver(int tableBits) {
+        int size = 1 << tableBits;
+        tableBlack = new long[size];
+        tableWhite = new long[size];
+        tableData = new long[size];
+        tableMask = size - 1;
+    }
+
+    // האם כדאי להפעיל את הפותר על הלוח
+    public static boolean isApplicable(BitBoardRepresentation board, int maxEmpties) {
+        return Long.bitCount(board.getEmptyMask()) <= maxEmpties;
+    }
+
+    /**
+     * פתרון מדויק של המצב
+     * @param nodeBudget מספר הצמתים המקסימלי (0 - ללא הגבלה); בחריגה התוצאה UNKNOWN
+     */
+    public Result solve(BitBoardRepresentation board, int player, long nodeBudget) {
+        return solve(board, player, nodeBudget, 0);
+    }
+
+    /**
+     * פתרון מדויק עם מגבלת זמן בנוסף לתקציב הצמתים
+     * @param timeMillis הזמן המקסימלי (0 - ללא הגבלה); בחריגה התוצאה UNKNOWN
+     */
+    public Result solve(BitBoardRepresentation board, int player, long nodeBudget, long timeMillis) {
+        long black = board.getBlackBoard();
+        long white = board.getWhiteBoard();
+        this.nodes = 0;
+        this.nodeBudget = nodeBudget;
+        this.deadlineNanos = (timeMillis > 0) ? System.nanoTime() + timeMillis * 1_000_000L : 0;
+        this.aborted = false;
+        this.rootBestMove = SearchResult.NO_MOVE;
+        orderer.clear();
+
+        // שלב 1: ניצחון / תיקו / הפסד בחלון צר
+        int score = negamax(black, white, player, 0, -1, 1);
+        if (aborted) {
+            return new Result(Outcome.UNKNOWN, SearchResult.NO_MOVE, 0, nodes);
+        }
+
+        // שלב 2: המרחק לסוף - ניצחון מהיר או הגנה ארוכה
+        if (score > 0) {
+            score = negamax(black, white, player, 0, 0, WIN_SCORE);
+        } else if (score < 0) {
+            score = negamax(black, white, player, 0, -WIN_SCORE, 0);
+        }
+        if (aborted) {
+            return new Result(Outcome.UNKNOWN, SearchResult.NO_MOVE, 0, nodes);
+        }
+
+        int move = rootBestMove;
+        Outcome outcome = (score > 0) ? Outcome.WIN : (score < 0) ? Outcome.LOSS : Outcome.DRAW;
+        int distance = (score == 0) ? Long.bitCount(MoveGenerator.emptyCells(black, white)) : WIN_SCORE - Math.abs(score);
+        return new Result(outcome, move, distance, nodes);
+    }
+
+    public void clear() {
+        Arrays.fill(tableBlack, 0);
+        Arrays.fill(tableWhite, 0);
+        Arrays.fill(tableData, 0);
+    }
+
+    // ========================
+    // חיפוש
+    // ========================
+
+    private int negamax(long black, long white, int side, int ply, int alpha, int beta) {
+        nodes++;
+        if ((nodeBudget != 0 && nodes > nodeBudget)
+                || (deadlineNanos != 0 && (nodes & CHECK_INTERVAL_MASK) == 0 && System.nanoTime() >= deadlineNanos)) {
+            aborted = true;
+        }
+        if (aborted) {
+            return 0;
+        }
+
+        long empty = MoveGenerator.emptyCells(black, white);
+        if (empty == 0) {
+            return 0;
+        }
+
+        // הגבלת החלון לפי המרחק: אין ניצחון מהיר יותר מהמהלך הבא
+        int bestPossible = WIN_SCORE - (ply + 1);
+        if (beta > bestPossible) {
+            beta = bestPossible;
+            if (alpha >= beta) {
+                return beta;
+            }
+        }
+
+        int index = index(black, white, side);
+        long keyWhite = white | ((long) side << 40);
+        int ttMove = SearchResult.NO_MOVE;
+        if (tableBlack[index] == black && tableWhite[index] == keyWhite && tableData[index] != 0) {
+            long data = tableData[index];
+            int ttScore = fromTable(dataScore(data), ply);
+            int bound = dataBound(data);
+            ttMove = dataMove(data);
+            if (bound == EXACT
+                    || (bound == LOWER_BOUND && ttScore >= beta)
+                    || (bound == UPPER_BOUND && ttScore <= alpha)) {
+                return ttScore;
+            }
+        }
+
+        int[] moves = moveBuffers[ply];
+        int[] scores = scoreBuffers[ply];
+        int count = MoveGenerator.generateMoves(black, white, side, moves, 0);
+
+        // ניצחון מיידי - תמיד הטוב ביותר, אין צורך לבדוק הלאה
+        for (int i = 0; i < count; i++) {
+            if (childOutcome(black, white, side, moves[i]) == MctsPlayout.WIN) {
+                if (ply == 0) {
+                    rootBestMove = moves[i];
+                }
+                store(index, black, keyWhite, bestPossible, EXACT, moves[i], ply);
+                return bestPossible;
+            }
+        }
+
+        long own = (side == 0) ? black : white;
+        long opponent = (side == 0) ? white : black;
+        orderer.scoreMoves(moves, scores, count, own, opponent, ttMove, ply);
+
+        int originalAlpha = alpha;
+        int bestScore = -WIN_SCORE;
+        int bestMove = SearchResult.NO_MOVE;
+
+        for (int i = 0; i < count; i++) {
+            int move = MoveOrderer.pickNext(moves, scores, i, count);
+            long childBlack = applyToBlack(black, side, move);
+            long childWhite = applyToWhite(white, side, move);
+
+            int score;
+            int outcome = MctsPlayout.terminalResult(childBlack, childWhite, side);
+            if (outcome == MctsPlayout.LOSS) {
+                score = -(WIN_SCORE - (ply + 1)); // הסיבוב השלים רצף ליריב בלבד, או לשניהם כשהיריב שחור
+            } else if (outcome == MctsPlayout.DRAW) {
+                score = 0; // לוח מלא בלי רצף
+            } else {
+                score = -negamax(childBlack, childWhite, 1 - side, ply + 1, -beta, -alpha);
+                if (aborted) {
+                    return 0;
+                }
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (ply == 0) {
+                    rootBestMove = move;
+                }
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        orderer.recordCutoff(move, 1, ply);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = (bestScore >= beta) ? LOWER_BOUND : (bestScore > originalAlpha) ? EXACT : UPPER_BOUND;
+        store(index, black, keyWhite, bestScore, bound, bestMove, ply);
+        return bestScore;
+    }
+
+    // התוצאה המיידית של מהלך מנקודת המבט של side (WIN/DRAW/LOSS של MctsPlayout, או -1);
+    // רצף לשניהם נספר כניצחון של השחור לפי MctsPlayout.terminalResult
+    private static int childOutcome(long black, long white, int side, int move) {
+        return MctsPlayout.terminalResult(applyToBlack(black, side, move), applyToWhite(white, side, move), side);
+    }
+
+    private static long applyToBlack(long black, int side, int move) {
+        if (side == 0) {
+            black |= 1L << MoveGenerator.getPosition(move);
+        }
+        return BitBoardRepresentation.rotateQuadrant(black, MoveGenerator.getQuadrant(move), MoveGenerator.isClockwise(move));
+    }
+
+    private static long applyToWhite(long white, int side, int move) {
+        if (side == 1) {
+            white |= 1L << MoveGenerator.getPosition(move);
+        }
+        return BitBoardRepresentation.rotateQuadrant(white, MoveGenerator.getQuadrant(move), MoveGenerator.isClockwise(move));
+    }
+
+    // ========================
+    // טבלת גיבוב
+    // ========================
+
+    private int index(long black, long white, int side) {
+        long h = black * 0x9E3779B97F4A7C15L ^ (white + side) * 0xC2B2AE3D27D4EB4FL;
+        h ^= h >>> 29;
+        return (int) h & tableMask;
+    }
+
+    private void store(int index, long black, long keyWhite, int score, int bound, int move, int ply) {
+        tableBlack[index] = black;
+        tableWhite[index] = keyWhite;
+        tableData[index] = (toTable(score, ply) & 0xFFFFFFFFL) | ((long) bound << 32) | ((long) (move + 1) << 34);
+    }
+
+    private static int dataScore(long data) {
+        return (int) data;
+    }
+
+    private static int dataBound(long data) {
+        return (int) (data >>> 32) & 3;
+    }
+
+    private static int dataMove(long data) {
+        return (int) (data >>> 34) - 1;
+    }
+
+    // מרחק הניצחון נשמר ביחס לצומת, כמו ב-AlphaBetaSearch
+    private static int toTable(int score, int ply) {
+        return (score > 0) ? score + ply : (score < 0) ? score - ply : 0;
+    }
+
+    private static int fromTable(int score, int ply) {
+        return (score > 0) ? score - ply : (score < 0) ? score + ply : 0;
+    }
+}
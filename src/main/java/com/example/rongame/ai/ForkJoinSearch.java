@@ -0,0 +1,325 @@
+package com.example.rongame.ai;
+
+import com.example.rongame.model.BitBoardRepresentation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * חיפוש מקבילי דטרמיניסטי על ForkJoinPool בשיטת YBWC (Young Brothers Wait Concept):
+ * בכל צומת מספיק עמוק הבן הראשון נבדק לבד, ואחריו שאר האחים מתפצלים למשימות
+ * עם חסם אלפא משותף. גיזום בטא אצל אח אחד מבטל את כל האחים שעדיין רצים.
+ *
+ * אין כאן טבלת טרנספוזיציה משותפת, ובשורש כל מהלך נבדק בחלון שמחזיר ציון מדויק
+ * גם בשוויון - לכן המהלך והציון זהים בכל הרצה, ללא תלות בתזמון החוטים.
+ * רק מספר הצמתים משתנה בין הרצות.
+ */
+public class ForkJoinSearch {
+
+    // מתחת לעומק זה הצומת נבדק ברצף (פיצול קטן מדי לא משתלם)
+    private static final int MIN_SPLIT_DEPTH = 2;
+    private static final int MAX_PLY = 36;
+
+    // בדיקת ביטול פעם בכל כך הרבה צמתים
+    private static final int CANCEL_CHECK_MASK = 63;
+
+    private final ForkJoinPool pool;
+    private final LongAdder nodes = new LongAdder();
+
+    public ForkJoinSearch() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ForkJoinSearch(int parallelism) {
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * חיפוש בעומק קבוע
+     * @param position הלוח הנוכחי (לא משתנה)
+     * @param player השחקן שתורו
+     */
+    public SearchResult search(BitBoardRepresentation position, int player, int depth) {
+        BitBoardRepresentation root = position.copy();
+        root.setSideToMove(player);
+        nodes.reset();
+
+        RootSearch task = new RootSearch(root, depth);
+        pool.invoke(task);
+        return new SearchResult(task.bestMove, task.bestScore, depth, nodes.sum());
+    }
+
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // ========================
+    // נקודת פיצול
+    // ========================
+
+    /**
+     * מצב משותף לאחים שרצים במקביל: אלפא הטוב ביותר עד כה ודגל גיזום.
+     * ביטול של נקודת פיצול מבטל גם את כל נקודות הפיצול שמתחתיה.
+     */
+    private static final class SplitPoint {
+        final SplitPoint parent;
+        final AtomicInteger alpha;
+        final int beta;
+        volatile boolean cutoff;
+
+        SplitPoint(SplitPoint parent, int alpha, int beta) {
+            this.parent = parent;
+            this.alpha = new AtomicInteger(alpha);
+            this.beta = beta;
+        }
+
+        boolean isCancelled() {
+            for (SplitPoint sp = this; sp != null; sp = sp.parent) {
+                if (sp.cutoff) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void update(int score) {
+            int current = alpha.get();
+            while (score > current && !alpha.compareAndSet(current, score)) {
+                current = alpha.get();
+            }
+            if (score >= beta) {
+                cutoff = true;
+            }
+        }
+    }
+
+    // ========================
+    // שורש
+    // ========================
+
+    /**
+     * בשורש: המהלך הראשון ברצף, השאר במקביל. כל מהלך נבדק בחלון (alpha - 1, INFINITY)
+     * כך שמהלך ששווה לטוב ביותר מקבל ציון מדויק, והבחירה היא המהלך הראשון בסדר עם הציון הגבוה
+     */
+    private final class RootSearch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient BitBoardRepresentation board;
+        private final int depth;
+        int bestMove = SearchResult.NO_MOVE;
+        int bestScore = -AlphaBetaSearch.INFINITY;
+
+        RootSearch(BitBoardRepresentation board, int depth) {
+            this.board = board;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            Worker worker = new Worker(board, null);
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            int count = worker.orderedMoves(moves, 0);
+            if (count == 0) {
+                return;
+            }
+
+            int[] scores = new int[count];
+            SplitPoint root = new SplitPoint(null, -AlphaBetaSearch.INFINITY, AlphaBetaSearch.INFINITY);
+
+            worker.makeMove(moves[0]);
+            scores[0] = -worker.negamax(depth - 1, 1, -AlphaBetaSearch.INFINITY, AlphaBetaSearch.INFINITY);
+            board.undoMove();
+            worker.flushNodes();
+            root.update(scores[0]);
+
+            List<RecursiveAction> siblings = new ArrayList<>(count - 1);
+            for (int i = 1; i < count; i++) {
+                final int index = i;
+                final BitBoardRepresentation child = childBoard(board, moves[i]);
+                siblings.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        Worker childWorker = new Worker(child, root);
+                        int alpha = root.alpha.get();
+                        scores[index] = -childWorker.negamax(depth - 1, 1, -AlphaBetaSearch.INFINITY, -(alpha - 1));
+                        childWorker.flushNodes();
+                        root.update(scores[index]);
+                    }
+                });
+            }
+            ForkJoinTask.invokeAll(siblings);
+
+            for (int i = 0; i < count; i++) {
+                if (scores[i] > bestScore) {
+                    bestScore = scores[i];
+                    bestMove = moves[i];
+                }
+            }
+        }
+    }
+
+    private static BitBoardRepresentation childBoard(BitBoardRepresentation board, int move) {
+        BitBoardRepresentation child = board.copy();
+        child.doMove(MoveGenerator.getPosition(move), MoveGenerator.getQuadrant(move), MoveGenerator.getDirection(move));
+        return child;
+    }
+
+    // ========================
+    // חיפוש בתוך משימה
+    // ========================
+
+    /**
+     * מנוע negamax של משימה אחת - לוח, סידור מהלכים ומערכים משלו
+     */
+    private final class Worker {
+        private final BitBoardRepresentation board;
+        private final SplitPoint splitPoint;
+        private final MoveOrderer orderer = new MoveOrderer(MAX_PLY);
+        private final int[][] moveBuffers = new int[MAX_PLY + 1][];
+        private final int[][] scoreBuffers = new int[MAX_PLY + 1][];
+        private long localNodes;
+        private boolean aborted;
+
+        Worker(BitBoardRepresentation board, SplitPoint splitPoint) {
+            this.board = board;
+            this.splitPoint = splitPoint;
+        }
+
+        void makeMove(int move) {
+            board.doMove(MoveGenerator.getPosition(move), MoveGenerator.getQuadrant(move), MoveGenerator.getDirection(move));
+        }
+
+        void flushNodes() {
+            nodes.add(localNodes);
+            localNodes = 0;
+        }
+
+        // יצירת המהלכים וסידורם המלא לפי ההערכה הסטטית
+        int orderedMoves(int[] moves, int ply) {
+            int side = board.getSideToMove();
+            long own = (side == 0) ? board.getBlackBoard() : board.getWhiteBoard();
+            long opponent = (side == 0) ? board.getWhiteBoard() : board.getBlackBoard();
+            int count = MoveGenerator.generateMoves(board.getBlackBoard(), board.getWhiteBoard(), side, moves, 0);
+            int[] scores = new int[count];
+            orderer.scoreMoves(moves, scores, count, own, opponent, SearchResult.NO_MOVE, ply);
+            for (int i = 0; i < count - 1; i++) {
+                MoveOrderer.pickNext(moves, scores, i, count);
+            }
+            return count;
+        }
+
+        int negamax(int depth, int ply, int alpha, int beta) {
+            localNodes++;
+            if (aborted || ((localNodes & CANCEL_CHECK_MASK) == 0 && splitPoint != null && splitPoint.isCancelled())) {
+                aborted = true;
+                return 0;
+            }
+
+            int side = board.getSideToMove();
+            long black = board.getBlackBoard();
+            long white = board.getWhiteBoard();
+
+            int terminal = AlphaBetaSearch.terminalScore(black, white, side, ply);
+            if (terminal != AlphaBetaSearch.NOT_TERMINAL) {
+                return terminal;
+            }
+            if (depth <= 0 || ply >= MAX_PLY) {
+                return AlphaBetaSearch.evaluate(black, white, side);
+            }
+
+            int[] moves = buffer(moveBuffers, ply);
+            int[] scores = buffer(scoreBuffers, ply);
+            long own = (side == 0) ? black : white;
+            long opponent = (side == 0) ? white : black;
+            int count = MoveGenerator.generateMoves(black, white, side, moves, 0);
+            orderer.scoreMoves(moves, scores, count, own, opponent, SearchResult.NO_MOVE, ply);
+
+            int bestScore = -AlphaBetaSearch.INFINITY;
+            for (int i = 0; i < count; i++) {
+                MoveOrderer.pickNext(moves, scores, i, count);
+
+                // האח הבכור נבדק - מפצלים את שאר האחים
+                if (i == 1 && depth >= MIN_SPLIT_DEPTH && count > 2) {
+                    return split(moves, i, count, depth, ply, Math.max(alpha, bestScore), beta, bestScore);
+                }
+
+                makeMove(moves[i]);
+                int score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+                board.undoMove();
+
+                if (aborted) {
+                    return 0;
+                }
+                if (score > bestScore) {
+                    bestScore = score;
+                    if (score > alpha) {
+                        alpha = score;
+                        if (alpha >= beta) {
+                            orderer.recordCutoff(moves[i], depth, ply);
+                            break;
+                        }
+                    }
+                }
+            }
+            return bestScore;
+        }
+
+        private int split(int[] moves, int from, int count, int depth, int ply, int alpha, int beta, int bestScore) {
+            SplitPoint sp = new SplitPoint(splitPoint, alpha, beta);
+            int[] results = new int[count - from];
+            boolean[] completed = new boolean[count - from];
+
+            List<RecursiveAction> siblings = new ArrayList<>(count - from);
+            for (int i = from; i < count; i++) {
+                final int index = i - from;
+                final BitBoardRepresentation child = childBoard(board, moves[i]);
+                siblings.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        if (sp.isCancelled()) {
+                            return;
+                        }
+                        Worker childWorker = new Worker(child, sp);
+                        int score = -childWorker.negamax(depth - 1, ply + 1, -beta, -sp.alpha.get());
+                        childWorker.flushNodes();
+                        if (!childWorker.aborted) {
+                            results[index] = score;
+                            completed[index] = true;
+                            sp.update(score);
+                        }
+                    }
+                });
+            }
+            ForkJoinTask.invokeAll(siblings);
+
+            // ביטול מלמעלה - התוצאה של הצומת הזה לא תשמש
+            if (splitPoint != null && splitPoint.isCancelled()) {
+                aborted = true;
+                return 0;
+            }
+
+            for (int i = 0; i < results.length; i++) {
+                if (completed[i] && results[i] > bestScore) {
+                    bestScore = results[i];
+                }
+            }
+            return bestScore;
+        }
+
+        private int[] buffer(int[][] buffers, int ply) {
+            if (buffers[ply] == null) {
+                buffers[ply] = new int[MoveGenerator.MAX_MOVES];
+            }
+            return buffers[ply];
+        }
+    }
+}
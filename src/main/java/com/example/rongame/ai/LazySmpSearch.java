@@ -0,0 +1,187 @@
+package com.example.rongame.ai;
+
+import com.example.rongame.model.BitBoardRepresentation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * חיפוש מקבילי בשיטת Lazy SMP: כמה מנועי AlphaBetaSearch מחפשים את אותו שורש במקביל
+ * עם טבלת טרנספוזיציה משותפת. המנוע הראשי רץ על החוט הקורא, מנועי העזר על מאגר חוטים.
+ * כשמנוע כלשהו מסיים - כולם נעצרים, ונבחרת התוצאה מהעומק הגבוה ביותר שהושלם.
+ */
+public class LazySmpSearch {
+
+    private final TranspositionTable table;
+    private final AlphaBetaSearch[] workers;
+    private final ExecutorService helperPool;
+    private final AtomicBoolean stopFlag = new AtomicBoolean();
+
+    // ביטול שנשאר בתוקף גם לחיפושים הבאים, עד resetCancel
+    private volatile boolean cancelled;
+
+    public LazySmpSearch() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public LazySmpSearch(int threads) {
+        this(threads, new TranspositionTable());
+    }
+
+    public LazySmpSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        this.table = table;
+        this.workers = new AlphaBetaSearch[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new AlphaBetaSearch(table);
+            workers[i].setSharedStop(stopFlag);
+            workers[i].setHelperId(i);
+        }
+
+        if (threads > 1) {
+            helperPool = Executors.newFixedThreadPool(threads - 1, runnable -> {
+                Thread thread = new Thread(runnable, "pentago-search-helper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            helperPool = null;
+        }
+    }
+
+    public int getThreadCount() {
+        return workers.length;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    public void setMoveOrdering(boolean moveOrdering) {
+        for (AlphaBetaSearch worker : workers) {
+            worker.setMoveOrdering(moveOrdering);
+        }
+    }
+
+    public void setLateMoveReductions(boolean enabled) {
+        for (AlphaBetaSearch worker : workers) {
+            worker.setLateMoveReductions(enabled);
+        }
+    }
+
+    public void setFutilityPruning(boolean enabled) {
+        for (AlphaBetaSearch worker : workers) {
+            worker.setFutilityPruning(enabled);
+        }
+    }
+
+    public void setQuiescenceDepth(int quiescenceDepth) {
+        for (AlphaBetaSearch worker : workers) {
+            worker.setQuiescenceDepth(quiescenceDepth);
+        }
+    }
+
+    /**
+     * העמקה הדרגתית מקבילית במסגרת המגבלות הנתונות
+     * @return התוצאה מהעומק הגבוה ביותר שהושלם (בשוויון - של המנוע הראשי)
+     */
+    public SearchResult searchIterative(BitBoardRepresentation position, int player, SearchLimits limits) {
+        stopFlag.set(false);
+        if (cancelled) {
+            stopFlag.set(true); // ביטול שהגיע לפני תחילת החיפוש לא הולך לאיבוד
+        }
+        table.newSearch();
+
+        List<Future<SearchResult>> helpers = new ArrayList<>();
+        for (int i = 1; i < workers.length; i++) {
+            AlphaBetaSearch worker = workers[i];
+            helpers.add(helperPool.submit(() -> {
+                try {
+                    return worker.searchIterative(position, player, limits);
+                } finally {
+                    stopFlag.set(true);
+                }
+            }));
+        }
+
+        SearchResult best;
+        try {
+            best = workers[0].searchIterative(position, player, limits);
+        } finally {
+            stopFlag.set(true);
+        }
+
+        long totalNodes = (best != null) ? best.nodes() : 0;
+        for (Future<SearchResult> helper : helpers) {
+            SearchResult result = waitFor(helper);
+            if (result == null) {
+                continue; // מנוע שנעצר לפני שסיים אפילו עומק אחד
+            }
+            totalNodes += result.nodes();
+            if (best == null || result.depth() > best.depth()) {
+                best = result;
+            }
+        }
+
+        if (best == null) {
+            // החיפוש בוטל לפני שאף מנוע השלים עומק
+            return new SearchResult(SearchResult.NO_MOVE, 0, 0, totalNodes);
+        }
+        return best.withNodes(totalNodes);
+    }
+
+    // עצירת החיפוש הנוכחי (בטוח לקריאה מחוט אחר)
+    public void stop() {
+        stopFlag.set(true);
+    }
+
+    /**
+     * ביטול החיפוש הנוכחי וכל חיפוש שיתחיל אחריו, עד לקריאה ל-resetCancel
+     */
+    public void cancel() {
+        cancelled = true;
+        stopFlag.set(true);
+    }
+
+    public void resetCancel() {
+        cancelled = false;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    // סגירת מאגר החוטים של מנועי העזר
+    public void shutdown() {
+        stop();
+        if (helperPool != null) {
+            helperPool.shutdownNow();
+        }
+    }
+
+    private static SearchResult waitFor(Future<SearchResult> future) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true; // חייבים לחכות לסיום המנוע לפני שמשתמשים שוב בטבלה
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Search helper failed", e.getCause());
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
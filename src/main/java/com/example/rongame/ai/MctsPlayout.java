@@ -0,0 +1,100 @@
+package com.example.rongame.ai;
+
+import com.example.rongame.model.BitBoardRepresentation;
+
+/**
+ * משחק אקראי מהיר עד הסוף על שני ה-long של הלוח, עם מחולל xorshift.
+ * לא מקצה זיכרון - הסיבוב ובדיקת הניצחון מבוססים על הטבלאות של BitBoardRepresentation.
+ * מופע אחד לכל חוט (המחולל אינו בטוח לשימוש משותף).
+ */
+final class MctsPlayout {
+
+    // תוצאות בחצאי נקודות, מנקודת המבט של השחקן שתורו בתחילת המשחק האקראי
+    static final int LOSS = 0;
+    static final int DRAW = 1;
+    static final int WIN = 2;
+
+    private long state;
+
+    MctsPlayout(long seed) {
+        // xorshift לא יכול להתחיל מאפס
+        state = (seed == 0) ? 0x9E3779B97F4A7C15L : seed;
+    }
+
+    long nextLong() {
+        long x = state;
+        x ^= x << 13;
+        x ^= x >>> 7;
+        x ^= x << 17;
+        state = x;
+        return x;
+    }
+
+    // מספר אקראי בטווח [0, bound)
+    int nextInt(int bound) {
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * משחק אקראי: הנחה במשבצת ריקה אקראית וסיבוב אקראי, עד ניצחון או לוח מלא
+     * @return WIN, DRAW או LOSS עבור side
+     */
+    int run(long black, long white, int side) {
+        int player = side;
+
+        while (true) {
+            long empty = ~(black | white) & BitBoardRepresentation.FULL_BOARD;
+            if (empty == 0) {
+                return DRAW;
+            }
+
+            // בחירת הביט ה-k הדלוק במשבצות הריקות
+            for (int k = nextInt(Long.bitCount(empty)); k > 0; k--) {
+                empty &= empty - 1;
+            }
+            long cell = Long.lowestOneBit(empty);
+
+            long random = nextLong();
+            int quadrant = (int) (random & 3);
+            boolean clockwise = (random & 4) != 0;
+
+            if (player == 0) {
+                black |= cell;
+            } else {
+                white |= cell;
+            }
+            black = BitBoardRepresentation.rotateQuadrant(black, quadrant, clockwise);
+            white = BitBoardRepresentation.rotateQuadrant(white, quadrant, clockwise);
+
+            switch (BitBoardRepresentation.getStatus(black, white)) {
+                case BLACK_WINS:
+                case BOTH_WIN:
+                    return (side == 0) ? WIN : LOSS;
+                case WHITE_WINS:
+                    return (side == 1) ? WIN : LOSS;
+                case DRAW:
+                    return DRAW;
+                default:
+                    player = 1 - player;
+            }
+        }
+    }
+
+    /**
+     * תוצאת מצב סופי מנקודת המבט של side, או -1 אם המשחק לא הסתיים.
+     * כשלשניהם יש רצף השחור מנצח, כמו ב-PentagoModel
+     */
+    static int terminalResult(long black, long white, int side) {
+        switch (BitBoardRepresentation.getStatus(black, white)) {
+            case BLACK_WINS:
+            case BOTH_WIN:
+                return (side == 0) ? WIN : LOSS;
+            case WHITE_WINS:
+                return (side == 1) ? WIN : LOSS;
+            case DRAW:
+                return DRAW;
+            default:
+                return -1;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.example.rongame.ai;
+
+import com.example.rongame.model.BitBoardRepresentation;
+
+/**
+ * חיפוש עץ מונטה קרלו (MCTS) עם בחירת UCT.
+ * העץ נשמר במערכים פרימיטיביים (מאגר צמתים עם אינדקס לבן הראשון ומספר הבנים),
+ * כך שאין אובייקט לכל צומת. הבנים של צומת תופסים גוש רציף במאגר, מסודרים לפי
+ * ההערכה הסטטית של MoveOrderer - והבן הראשון שלא ביקרו בו נבחר לפניהם.
+ */
+public class MctsSearch {
+
+    public static final int DEFAULT_CAPACITY = 1 << 21;
+    public static final double DEFAULT_EXPLORATION = 1.0;
+
+    // צומת מורחב רק אחרי מספר ביקורים - חוסך זיכרון בענף הרחב של פנטגו
+    private static final int EXPANSION_VISITS = 2;
+    private static final int MAX_PLY = 36;
+    private static final int CHECK_INTERVAL_MASK = 255;
+    private static final int NO_CHILDREN = -1;
+    private static final int ROOT = 0;
+
+    // מאגר הצמתים
+    private final int capacity;
+    private final int[] moves;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] visits;
+    private final int[] rewards; // בחצאי נקודות, מנקודת המבט של מי שעשה את המהלך לצומת
+    private int nodeCount;
+
+    private final MctsPlayout playout;
+    private final MoveOrderer orderer = new MoveOrderer(MAX_PLY);
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+    private final int[] scoreBuffer = new int[MoveGenerator.MAX_MOVES];
+    private final int[] path = new int[MAX_PLY + 2];
+
+    private double exploration = DEFAULT_EXPLORATION;
+    private volatile boolean stopRequested;
+    private int maxSelectionDepth;
+
+    // המצב הנוכחי בזמן ירידה בעץ
+    private long black;
+    private long white;
+    private int side;
+
+    public MctsSearch() {
+        this(DEFAULT_CAPACITY, System.nanoTime());
+    }
+
+    public MctsSearch(int capacity, long seed) {
+        this.capacity = capacity;
+        this.moves = new int[capacity];
+        this.firstChild = new int[capacity];
+        this.childCount = new int[capacity];
+        this.visits = new int[capacity];
+        this.rewards = new int[capacity];
+        this.playout = new MctsPlayout(seed);
+    }
+
+    public void setExploration(double exploration) {
+        this.exploration = exploration;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    // בקשה לעצור את החיפוש הנוכחי (בטוח לקריאה מחוט אחר)
+    public void stop() {
+        stopRequested = true;
+    }
+
+    /**
+     * הרצת MCTS עד שתקציב הזמן או מספר המשחקים האקראיים (maxNodes) נגמר
+     * @return המהלך שבו ביקרו הכי הרבה; הציון הוא אחוז הניצחון בסולם -1000..1000,
+     *         העומק הוא העומק המקסימלי שהבחירה הגיעה אליו, והצמתים - מספר המשחקים האקראיים
+     */
+    public SearchResult search(BitBoardRepresentation position, int player, SearchLimits limits) {
+        stopRequested = false;
+        long deadline = (limits.timeMillis() > 0) ? System.nanoTime() + limits.timeMillis() * 1_000_000L : 0;
+        long maxPlayouts = limits.maxNodes();
+
+        long rootBlack = position.getBlackBoard();
+        long rootWhite = position.getWhiteBoard();
+        reset();
+
+        long playouts = 0;
+        while (!stopRequested) {
+            black = rootBlack;
+            white = rootWhite;
+            side = player;
+            if (!iterate()) {
+                break; // לשורש אין מהלכים
+            }
+            playouts++;
+
+            if (maxPlayouts != 0 && playouts >= maxPlayouts) {
+                break;
+            }
+            if ((playouts & CHECK_INTERVAL_MASK) == 0 && deadline != 0 && System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+
+        return bestResult(playouts);
+    }
+
+    private void reset() {
+        nodeCount = 1;
+        moves[ROOT] = SearchResult.NO_MOVE;
+        firstChild[ROOT] = NO_CHILDREN;
+        childCount[ROOT] = 0;
+        visits[ROOT] = 0;
+        rewards[ROOT] = 0;
+        maxSelectionDepth = 0;
+        orderer.clear();
+    }
+
+    /**
+     * איטרציה אחת: בחירה, הרחבה, משחק אקראי ועדכון לאחור
+     * @return false אם השורש הוא מצב סופי
+     */
+    private boolean iterate() {
+        int node = ROOT;
+        int depth = 0;
+        path[0] = ROOT;
+
+        // בחירה
+        while (firstChild[node] != NO_CHILDREN) {
+            node = selectChild(node);
+            applyMove(moves[node]);
+            path[++depth] = node;
+        }
+
+        int result = MctsPlayout.terminalResult(black, white, side);
+        if (result < 0) {
+            // הרחבה של עלה שכבר ביקרו בו מספיק (השורש מורחב מיד)
+            if ((node == ROOT || visits[node] >= EXPANSION_VISITS) && expand(node)) {
+                node = firstChild[node];
+                applyMove(moves[node]);
+                path[++depth] = node;
+                result = MctsPlayout.terminalResult(black, white, side);
+            }
+            if (result < 0) {
+                result = playout.run(black, white, side);
+            }
+        } else if (depth == 0) {
+            return false;
+        }
+
+        maxSelectionDepth = Math.max(maxSelectionDepth, depth);
+
+        // עדכון לאחור: התוצאה היא מנקודת המבט של השחקן שתורו בעלה
+        for (int i = depth; i >= 0; i--) {
+            int n = path[i];
+            visits[n]++;
+            rewards[n] += ((depth - i) & 1) == 1 ? result : MctsPlayout.WIN - result;
+        }
+        return true;
+    }
+
+    private int selectChild(int node) {
+        int first = firstChild[node];
+        int end = first + childCount[node];
+        double logParent = Math.log(visits[node]);
+
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < end; child++) {
+            int n = visits[child];
+            if (n == 0) {
+                return child; // הבנים מסודרים לפי ההערכה הסטטית - הראשון שלא נבדק
+            }
+            double value = rewards[child] / (2.0 * n) + exploration * Math.sqrt(logParent / n);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    // יצירת הבנים של צומת כגוש רציף במאגר; false אם המאגר מלא
+    private boolean expand(int node) {
+        int count = MoveGenerator.generateMoves(black, white, side, moveBuffer, 0);
+        if (count == 0 || nodeCount + count > capacity) {
+            return false;
+        }
+
+        long own = (side == 0) ? black : white;
+        long opponent = (side == 0) ? white : black;
+        orderer.scoreMoves(moveBuffer, scoreBuffer, count, own, opponent, SearchResult.NO_MOVE, 0);
+
+        int first = nodeCount;
+        for (int i = 0; i < count; i++) {
+            int child = first + i;
+            moves[child] = MoveOrderer.pickNext(moveBuffer, scoreBuffer, i, count);
+            firstChild[child] = NO_CHILDREN;
+            childCount[child] = 0;
+            visits[child] = 0;
+            rewards[child] = 0;
+        }
+        nodeCount += count;
+        childCount[node] = count;
+        firstChild[node] = first;
+        return true;
+    }
+
+    private void applyMove(int move) {
+        long cell = 1L << MoveGenerator.getPosition(move);
+        if (side == 0) {
+            black |= cell;
+        } else {
+            white |= cell;
+        }
+        int quadrant = MoveGenerator.getQuadrant(move);
+        boolean clockwise = MoveGenerator.isClockwise(move);
+        black = BitBoardRepresentation.rotateQuadrant(black, quadrant, clockwise);
+        white = BitBoardRepresentation.rotateQuadrant(white, quadrant, clockwise);
+        side = 1 - side;
+    }
+
+    private SearchResult bestResult(long playouts) {
+        int first = firstChild[ROOT];
+        if (first == NO_CHILDREN) {
+            return new SearchResult(SearchResult.NO_MOVE, 0, 0, playouts);
+        }
+
+        int best = first;
+        for (int child = first + 1; child < first + childCount[ROOT]; child++) {
+            if (visits[child] > visits[best]) {
+                best = child;
+            }
+        }
+
+        int score = (visits[best] == 0) ? 0 : (int) Math.round((rewards[best] / (double) visits[best] - 1.0) * 1000);
+        return new SearchResult(moves[best], score, maxSelectionDepth, playouts);
+    }
+}
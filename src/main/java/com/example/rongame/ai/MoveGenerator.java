@@ -0,0 +1,154 @@
+package com.example.rongame.ai;
+
+import com.example.rongame.model.BitBoardRepresentation;
+import com.example.rongame.model.BoardSymmetry;
+
+/**
+ * מחולל מהלכים על בסיס מסכות ביטים
+ * מהלך מלא (הנחה + סיבוב) מקודד כמספר שלם יחיד:
+ * מיקום * 8 + רביע * 2 + כיוון (0=נגד השעון, 1=עם השעון)
+ */
+public final class MoveGenerator {
+
+    // מספר המהלכים המלאים המקסימלי (36 משבצות * 8 סיבובים)
+    public static final int MAX_MOVES = 36 * 8;
+
+    private MoveGenerator() {
+    }
+
+    // ========================
+    // קידוד ופענוח מהלכים
+    // ========================
+
+    public static int encode(int position, int quadrant, int direction) {
+        return (position << 3) | (quadrant << 1) | direction;
+    }
+
+    public static int getPosition(int move) {
+        return move >>> 3;
+    }
+
+    public static int getQuadrant(int move) {
+        return (move >>> 1) & 3;
+    }
+
+    public static int getDirection(int move) {
+        return move & 1;
+    }
+
+    public static boolean isClockwise(int move) {
+        return (move & 1) == 1;
+    }
+
+    // החלת טרנספורמציית סימטריה על מהלך מלא (ראו BoardSymmetry)
+    public static int transformMove(int move, int transform) {
+        return encode(
+                BoardSymmetry.transformPosition(getPosition(move), transform),
+                BoardSymmetry.transformQuadrant(getQuadrant(move), transform),
+                BoardSymmetry.transformDirection(getDirection(move), transform));
+    }
+
+    // ========================
+    // יצירת מהלכים
+    // ========================
+
+    // מסכת המשבצות הפנויות
+    public static long emptyCells(long black, long white) {
+        return ~(black | white) & BitBoardRepresentation.FULL_BOARD;
+    }
+
+    /**
+     * מילוי מערך (לשימוש חוזר) בכל המהלכים המלאים של שחקן
+     * סיבובים שמשאירים את הלוח ללא שינוי (רביע ריק או סימטרי לסיבוב) נכללים פעם אחת בלבד,
+     * וסיבוב נגד השעון מושמט כשהוא זהה לסיבוב עם השעון (רביע סימטרי ל-180 מעלות)
+     * @return מספר המהלכים שנכתבו למערך
+     */
+    public static int generateMoves(long black, long white, int player, int[] buffer, int offset) {
+        int count = offset;
+
+        // חישוב סימטריות הרביעים לפני ההנחה - רק הרביע שבו מניחים משתנה
+        int symmetric90 = 0;
+        int symmetric180 = 0;
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            int kind = symmetryOf(black, white, quadrant);
+            if (kind == 2) {
+                symmetric90 |= 1 << quadrant;
+            } else if (kind == 1) {
+                symmetric180 |= 1 << quadrant;
+            }
+        }
+
+        for (long cells = emptyCells(black, white); cells != 0; cells &= cells - 1) {
+            int position = Long.numberOfTrailingZeros(cells);
+            long placed = 1L << position;
+            long newBlack = (player == 0) ? black | placed : black;
+            long newWhite = (player == 0) ? white : white | placed;
+
+            int placedQuadrant = quadrantOf(position);
+            boolean noOpEmitted = false;
+
+            for (int quadrant = 0; quadrant < 4; quadrant++) {
+                int kind;
+                if (quadrant == placedQuadrant) {
+                    kind = symmetryOf(newBlack, newWhite, quadrant);
+                } else if ((symmetric90 & (1 << quadrant)) != 0) {
+                    kind = 2;
+                } else {
+                    kind = ((symmetric180 & (1 << quadrant)) != 0) ? 1 : 0;
+                }
+
+                if (kind == 2) {
+                    // סיבוב שאינו משנה את הלוח - כל הסיבובים האלה שקולים
+                    if (!noOpEmitted) {
+                        buffer[count++] = encode(position, quadrant, 1);
+                        noOpEmitted = true;
+                    }
+                    continue;
+                }
+
+                buffer[count++] = encode(position, quadrant, 1);
+                if (kind == 0) {
+                    buffer[count++] = encode(position, quadrant, 0);
+                }
+            }
+        }
+
+        return count - offset;
+    }
+
+    // מילוי מערך במיקומי המשבצות הפנויות (הנחה בלבד)
+    public static int generatePlacements(long black, long white, int[] buffer) {
+        int count = 0;
+        for (long cells = emptyCells(black, white); cells != 0; cells &= cells - 1) {
+            buffer[count++] = Long.numberOfTrailingZeros(cells);
+        }
+        return count;
+    }
+
+    // קביעת הרביע של מיקום
+    public static int quadrantOf(int position) {
+        int row = position / 6;
+        int col = position % 6;
+        return (row / 3) * 2 + (col / 3);
+    }
+
+    /**
+     * סוג הסימטריה של רביע: 2 - סימטרי לסיבוב של 90 מעלות (הסיבוב לא משנה דבר),
+     * 1 - סימטרי ל-180 מעלות (שני הכיוונים נותנים אותו לוח), 0 - ללא סימטריה
+     */
+    private static int symmetryOf(long black, long white, int quadrant) {
+        int blackBits = BitBoardRepresentation.getQuadrantBits(black, quadrant);
+        int whiteBits = BitBoardRepresentation.getQuadrantBits(white, quadrant);
+
+        if (BitBoardRepresentation.rotateQuadrantBits(blackBits, true) == blackBits
+                && BitBoardRepresentation.rotateQuadrantBits(whiteBits, true) == whiteBits) {
+            return 2;
+        }
+
+        int blackHalfTurn = BitBoardRepresentation.rotateQuadrantBits(
+                BitBoardRepresentation.rotateQuadrantBits(blackBits, true), true);
+        int whiteHalfTurn = BitBoardRepresentation.rotateQuadrantBits(
+                BitBoardRepresentation.rotateQuadrantBits(whiteBits, true), true);
+        return (blackHalfTurn == blackBits && whiteHalfTurn == whiteBits) ? 1 : 0;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.rongame.ai;
+
+import java.util.Arrays;
+
+/**
+ * סידור מהלכים לחיפוש אלפא-בטא:
+ * 1. מהלך מטבלת הטרנספוזיציה
+ * 2. מהלכי "killer" - מהלכים שגרמו לגיזום באותו עומק בענפים אחרים
+ * 3. טבלת היסטוריה לפי (משבצת, רביע, כיוון) ועוד הערכה סטטית של ההנחה
+ *    (משקלי המשבצות של PentagoAI וציון האיומים שההנחה יוצרת או חוסמת)
+ */
+public class MoveOrderer {
+
+    private static final int TT_MOVE_SCORE = 1 << 30;
+    private static final int KILLER_SCORE = 1 << 29;
+    private static final int KILLER_SLOTS = 2;
+
+    private final int[][] killers;
+    private final int[] history = new int[MoveGenerator.MAX_MOVES];
+
+    public MoveOrderer(int maxPly) {
+        killers = new int[maxPly + 1][KILLER_SLOTS];
+        clearKillers();
+    }
+
+    public void clear() {
+        clearKillers();
+        Arrays.fill(history, 0);
+    }
+
+    // בתחילת חיפוש חדש - מחיקת ה-killers והקטנת ערכי ההיסטוריה כדי שמידע ישן ידעך
+    public void age() {
+        clearKillers();
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 1;
+        }
+    }
+
+    private void clearKillers() {
+        for (int[] slots : killers) {
+            Arrays.fill(slots, SearchResult.NO_MOVE);
+        }
+    }
+
+    /**
+     * חישוב ציון סידור לכל מהלך
+     * @param own הכלים של השחקן שתורו
+     * @param opponent הכלים של היריב
+     * @param ttMove המהלך מטבלת הטרנספוזיציה (או NO_MOVE)
+     */
+    public void scoreMoves(int[] moves, int[] scores, int count, long own, long opponent, int ttMove, int ply) {
+        int killer1 = killers[ply][0];
+        int killer2 = killers[ply][1];
+
+        // ההערכה הסטטית תלויה רק במשבצת - מחושבת פעם אחת לכל משבצת
+        int lastPosition = -1;
+        int placement = 0;
+
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (move == ttMove) {
+                scores[i] = TT_MOVE_SCORE;
+            } else if (move == killer1) {
+                scores[i] = KILLER_SCORE;
+            } else if (move == killer2) {
+                scores[i] = KILLER_SCORE - 1;
+            } else {
+                int position = MoveGenerator.getPosition(move);
+                if (position != lastPosition) {
+                    lastPosition = position;
+                    placement = AlphaBetaSearch.CELL_WEIGHTS[position] + ThreatDetector.placementScore(own, opponent, position);
+                }
+                scores[i] = Math.min(placement + history[move], KILLER_SCORE - 2);
+            }
+        }
+    }
+
+    /**
+     * העברת המהלך בעל הציון הגבוה ביותר מבין הנותרים למקום index (מיון בחירה עצל -
+     * אחרי גיזום לא צריך למיין את שאר המהלכים)
+     */
+    public static int pickNext(int[] moves, int[] scores, int index, int count) {
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            int move = moves[best];
+            moves[best] = moves[index];
+            moves[index] = move;
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return moves[index];
+    }
+
+    // עדכון אחרי מהלך שגרם לגיזום בטא
+    public void recordCutoff(int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        history[move] += depth * depth;
+    }
+
+}
@@ -0,0 +1,181 @@
+package com.example.rongame.ai;
+
+import com.example.rongame.model.BitBoardRepresentation;
+import com.example.rongame.model.BoardSymmetry;
+import com.example.rongame.model.PositionCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * ספר פתיחות: מהלך מלא מחושב מראש לכל מצב קנוני מהמהלכים הראשונים של המשחק.
+ *
+ * מבנה הקובץ (little-endian):
+ *   כותרת - MAGIC (int), VERSION (int), מספר רשומות (long)
+ *   רשומות ממוינות לפי מפתח - מפתח (long), מהלך (int), ציון (int)
+ * המפתח הוא הקידוד הדחוס (PositionCodec) של הנציג הקנוני והשחקן שתורו - מדויק, ללא התנגשויות.
+ * המהלך שמור ביחס לנציג הקנוני ומוחזר ללוח האמיתי בטרנספורמציה ההפוכה.
+ *
+ * הקובץ ממופה לזיכרון ונבדק בחיפוש בינארי ישירות על המיפוי - אין טעינה או פענוח בהפעלה.
+ */
+public final class OpeningBook {
+
+    public static final String DEFAULT_PATH_PROPERTY = "pentago.book";
+    public static final String DEFAULT_FILE_NAME = "pentago-book.bin";
+
+    private static final int MAGIC = 0x50424F4B; // "PBOK"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int ENTRY_BYTES = 16;
+
+    // ספר ריק - כשאין קובץ
+    public static final OpeningBook EMPTY = new OpeningBook(null, 0);
+
+    private final ByteBuffer entries;
+    private final long size;
+
+    private OpeningBook(ByteBuffer entries, long size) {
+        this.entries = entries;
+        this.size = size;
+    }
+
+    /**
+     * מיפוי קובץ ספר לזיכרון
+     * @throws IOException אם הקובץ לא קיים או שהכותרת לא תקינה
+     */
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (mapped.capacity() < HEADER_BYTES || mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                throw new IOException("Not an opening book: " + path);
+            }
+            long size = mapped.getLong(8);
+            if (HEADER_BYTES + size * ENTRY_BYTES != mapped.capacity()) {
+                throw new IOException("Truncated opening book: " + path);
+            }
+            return new OpeningBook(mapped, size);
+        }
+    }
+
+    /**
+     * פתיחת ספר ברירת המחדל (מאפיין המערכת pentago.book או pentago-book.bin בתיקייה הנוכחית)
+     * @return הספר, או ספר ריק אם אין קובץ תקין
+     */
+    public static OpeningBook openDefault() {
+        Path path = Paths.get(System.getProperty(DEFAULT_PATH_PROPERTY, DEFAULT_FILE_NAME));
+        if (!Files.isRegularFile(path)) {
+            return EMPTY;
+        }
+        try {
+            return open(path);
+        } catch (IOException e) {
+            System.err.println("Opening book ignored: " + e.getMessage());
+            return EMPTY;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * חיפוש המהלך של הספר למצב נתון
+     * @return המהלך המקודד (MoveGenerator) ביחס ללוח האמיתי, או NO_MOVE אם המצב לא בספר
+     */
+    public int probe(BitBoardRepresentation board, int player) {
+        return probe(board.getBlackBoard(), board.getWhiteBoard(), player);
+    }
+
+    public int probe(long black, long white, int player) {
+        if (size == 0) {
+            return SearchResult.NO_MOVE;
+        }
+
+        BoardSymmetry.Canonical canonical = BoardSymmetry.canonical(black, white);
+        long index = find(key(canonical.black(), canonical.white(), player));
+        if (index < 0) {
+            return SearchResult.NO_MOVE;
+        }
+
+        int stored = entries.getInt(offset(index) + Long.BYTES);
+        int move = MoveGenerator.transformMove(stored, BoardSymmetry.inverse(canonical.transform()));
+
+        // הגנה מקובץ שלא מתאים ללוח
+        if ((MoveGenerator.emptyCells(black, white) & (1L << MoveGenerator.getPosition(move))) == 0) {
+            return SearchResult.NO_MOVE;
+        }
+        return move;
+    }
+
+    // המפתח של מצב קנוני בספר
+    static long key(long canonicalBlack, long canonicalWhite, int player) {
+        return PositionCodec.pack(canonicalBlack, canonicalWhite, player, PositionCodec.PHASE_PLACE);
+    }
+
+    // חיפוש בינארי ישירות על הקובץ הממופה
+    private long find(long key) {
+        long low = 0;
+        long high = size - 1;
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            long midKey = entries.getLong(offset(mid));
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private static int offset(long index) {
+        return (int) (HEADER_BYTES + index * ENTRY_BYTES);
+    }
+
+    /**
+     * כתיבת קובץ ספר. הרשומות ממוינות כאן לפי מפתח; מפתחות כפולים נשמרים פעם אחת
+     */
+    public static void write(Path path, long[] keys, int[] moves, int[] scores, int count) throws IOException {
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(keys[a], keys[b]));
+
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || keys[order[i]] != keys[order[i - 1]]) {
+                unique++;
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + unique * ENTRY_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(unique);
+        for (int i = 0; i < count; i++) {
+            int e = order[i];
+            if (i == 0 || keys[e] != keys[order[i - 1]]) {
+                buffer.putLong(keys[e]).putInt(moves[e]).putInt(scores[e]);
+            }
+        }
+        buffer.flip();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
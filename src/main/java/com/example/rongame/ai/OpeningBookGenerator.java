@@ -0,0 +1,119 @@
+package com.example.rongame.ai;
+
+import com.example.rongame.model.BitBoardRepresentation;
+import com.example.rongame.model.BoardSnapshot;
+import com.example.rongame.model.BoardSymmetry;
+import com.example.rongame.model.PositionCodec;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * כלי לא-מקוון לבניית ספר הפתיחות: מונה את כל המצבים הקנוניים עד מספר מהלכים נתון,
+ * מחפש לכל אחד את המהלך הטוב ביותר בעומק קבוע על כל הליבות, וכותב קובץ ממוין.
+ *
+ * הרצה: java com.example.rongame.ai.OpeningBookGenerator [קובץ] [מהלכים] [עומק] [חוטים]
+ */
+public final class OpeningBookGenerator {
+
+    private static final int DEFAULT_PLIES = 5;
+    private static final int DEFAULT_DEPTH = 3;
+
+    private OpeningBookGenerator() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        Path output = Paths.get(args.length > 0 ? args[0] : OpeningBook.DEFAULT_FILE_NAME);
+        int plies = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_PLIES;
+        int depth = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_DEPTH;
+        int threads = (args.length > 3) ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+        long[] positions = enumeratePositions(plies);
+        System.out.println("Positions: " + positions.length + " (plies < " + plies + "), depth " + depth
+                + ", threads " + threads);
+
+        int[] moves = new int[positions.length];
+        int[] scores = new int[positions.length];
+        long start = System.nanoTime();
+        AtomicInteger done = new AtomicInteger();
+
+        // מנוע חיפוש וטבלה לכל חוט
+        ThreadLocal<AlphaBetaSearch> searches = ThreadLocal.withInitial(() -> new AlphaBetaSearch(new TranspositionTable(16)));
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.submit(() -> IntStream.range(0, positions.length).parallel().forEach(i -> {
+                BoardSnapshot snapshot = PositionCodec.unpackSnapshot(positions[i]);
+                int player = PositionCodec.unpackSideToMove(positions[i]);
+                SearchResult result = searches.get().search(new BitBoardRepresentation(snapshot), player, depth);
+                moves[i] = result.move();
+                scores[i] = result.score();
+
+                int finished = done.incrementAndGet();
+                if (finished % 1000 == 0) {
+                    System.out.println(finished + " / " + positions.length);
+                }
+            })).get();
+        } finally {
+            pool.shutdown();
+        }
+
+        OpeningBook.write(output, positions, moves, scores, positions.length);
+        System.out.printf("Wrote %s in %ds%n", output, (System.nanoTime() - start) / 1_000_000_000L);
+    }
+
+    /**
+     * כל המצבים הקנוניים (לא סופיים) שמתקבלים אחרי 0 עד plies-1 מהלכים מלאים
+     * @return מפתחות הספר של המצבים (קידוד דחוס עם השחקן שתורו)
+     */
+    static long[] enumeratePositions(int plies) {
+        Set<Long> all = new LinkedHashSet<>();
+        List<Long> level = new ArrayList<>();
+        level.add(OpeningBook.key(0L, 0L, 0));
+        all.addAll(level);
+
+        long[] unpacked = new long[2];
+        int[] buffer = new int[MoveGenerator.MAX_MOVES];
+
+        for (int ply = 1; ply < plies; ply++) {
+            List<Long> next = new ArrayList<>();
+            for (long packed : level) {
+                PositionCodec.unpack(packed, unpacked);
+                int player = PositionCodec.unpackSideToMove(packed);
+                int count = MoveGenerator.generateMoves(unpacked[0], unpacked[1], player, buffer, 0);
+
+                for (int i = 0; i < count; i++) {
+                    BitBoardRepresentation board = new BitBoardRepresentation(new BoardSnapshot(unpacked[0], unpacked[1]));
+                    board.setSideToMove(player);
+                    int move = buffer[i];
+                    board.doMove(MoveGenerator.getPosition(move), MoveGenerator.getQuadrant(move), MoveGenerator.getDirection(move));
+                    if (board.getStatus() != BitBoardRepresentation.BoardStatus.IN_PROGRESS) {
+                        continue;
+                    }
+
+                    BoardSymmetry.Canonical canonical = BoardSymmetry.canonical(board.getBlackBoard(), board.getWhiteBoard());
+                    long key = OpeningBook.key(canonical.black(), canonical.white(), 1 - player);
+                    if (all.add(key)) {
+                        next.add(key);
+                    }
+                }
+            }
+            level = next;
+        }
+
+        long[] result = new long[all.size()];
+        int index = 0;
+        for (long key : all) {
+            result[index++] = key;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,331 @@
+package com.example.rongame.ai;
+
+import com.example.rongame.model.BitBoardRepresentation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * MCTS מקבילי: כל החוטים יורדים באותו עץ משותף ללא נעילות.
+ * - ביקורים ותגמולים נשמרים יחד ב-long אטומי אחד לכל צומת (ביקורים ב-32 הביטים התחתונים),
+ *   כך שעדכון ואיסוף הם פעולה אטומית אחת
+ * - virtual loss: חוט שיורד דרך צומת מוסיף לו ביקורים ללא תגמול, כדי שחוטים אחרים יעדיפו ענפים אחרים
+ * - הקצאת בנים ללא נעילה: החוט שזוכה ב-CAS על הצומת מקצה גוש במאגר בעזרת getAndAdd ומפרסם אותו
+ */
+public class ParallelMctsSearch {
+
+    public static final int DEFAULT_CAPACITY = 1 << 22;
+    private static final int VIRTUAL_LOSS = 3;
+    private static final int EXPANSION_VISITS = 2;
+    private static final int MAX_PLY = 36;
+    private static final int CHECK_INTERVAL = 256;
+    private static final int ROOT = 0;
+
+    // מצבי firstChild לפני שיש בנים
+    private static final int NO_CHILDREN = -1;
+    private static final int EXPANDING = -2;
+    private static final int POOL_FULL = -3;
+
+    private static final long VISIT = 1L;
+    private static final long REWARD = 1L << 32;
+
+    // מאגר הצמתים המשותף. moves ו-childCount נכתבים לפני פרסום firstChild (כתיבה volatile)
+    private final int capacity;
+    private final int[] moves;
+    private final int[] childCount;
+    private final AtomicIntegerArray firstChild;
+    private final AtomicLongArray stats;
+    private final AtomicInteger nodeCount = new AtomicInteger();
+
+    private final Worker[] workers;
+    private final ExecutorService pool;
+    private final AtomicLong playoutBudget = new AtomicLong();
+    private volatile boolean stopRequested;
+    private volatile double exploration = MctsSearch.DEFAULT_EXPLORATION;
+
+    public ParallelMctsSearch() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ParallelMctsSearch(int threads) {
+        this(threads, DEFAULT_CAPACITY, System.nanoTime());
+    }
+
+    public ParallelMctsSearch(int threads, int capacity, long seed) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1: " + threads);
+        }
+        this.capacity = capacity;
+        this.moves = new int[capacity];
+        this.childCount = new int[capacity];
+        this.firstChild = new AtomicIntegerArray(capacity);
+        this.stats = new AtomicLongArray(capacity);
+
+        this.workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(seed + i * 0x9E3779B97F4A7C15L);
+        }
+        this.pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "pentago-mcts-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getThreadCount() {
+        return workers.length;
+    }
+
+    public int getNodeCount() {
+        return Math.min(nodeCount.get(), capacity);
+    }
+
+    public void setExploration(double exploration) {
+        this.exploration = exploration;
+    }
+
+    public void stop() {
+        stopRequested = true;
+    }
+
+    public void shutdown() {
+        stop();
+        pool.shutdownNow();
+    }
+
+    /**
+     * הרצת כל החוטים על העץ המשותף עד שתקציב הזמן או מספר המשחקים האקראיים נגמר
+     * @return כמו MctsSearch.search - המהלך שבו ביקרו הכי הרבה
+     */
+    public SearchResult search(BitBoardRepresentation position, int player, SearchLimits limits) {
+        stopRequested = false;
+        long deadline = (limits.timeMillis() > 0) ? System.nanoTime() + limits.timeMillis() * 1_000_000L : 0;
+        playoutBudget.set(limits.maxNodes() > 0 ? limits.maxNodes() : Long.MAX_VALUE);
+
+        long black = position.getBlackBoard();
+        long white = position.getWhiteBoard();
+        reset();
+
+        // השורש מורחב מראש על החוט הקורא
+        if (MctsPlayout.terminalResult(black, white, player) >= 0 || !workers[0].expand(ROOT, black, white, player)) {
+            return new SearchResult(SearchResult.NO_MOVE, 0, 0, 0);
+        }
+
+        List<Future<?>> running = new ArrayList<>();
+        for (Worker worker : workers) {
+            running.add(pool.submit(() -> worker.run(black, white, player, deadline)));
+        }
+
+        long playouts = 0;
+        int depth = 0;
+        for (int i = 0; i < running.size(); i++) {
+            waitFor(running.get(i));
+            playouts += workers[i].playouts;
+            depth = Math.max(depth, workers[i].maxDepth);
+        }
+
+        return bestResult(playouts, depth);
+    }
+
+    private void reset() {
+        nodeCount.set(1);
+        moves[ROOT] = SearchResult.NO_MOVE;
+        childCount[ROOT] = 0;
+        firstChild.set(ROOT, NO_CHILDREN);
+        stats.set(ROOT, 0);
+    }
+
+    private SearchResult bestResult(long playouts, int depth) {
+        int first = firstChild.get(ROOT);
+        int best = first;
+        for (int child = first + 1; child < first + childCount[ROOT]; child++) {
+            if (visits(stats.get(child)) > visits(stats.get(best))) {
+                best = child;
+            }
+        }
+
+        long data = stats.get(best);
+        int n = visits(data);
+        int score = (n == 0) ? 0 : (int) Math.round((rewards(data) / (double) n - 1.0) * 1000);
+        return new SearchResult(moves[best], score, depth, playouts);
+    }
+
+    private static int visits(long data) {
+        return (int) data;
+    }
+
+    private static int rewards(long data) {
+        return (int) (data >>> 32);
+    }
+
+    private static void waitFor(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("MCTS worker failed", e.getCause());
+        }
+    }
+
+    // ========================
+    // חוט עבודה
+    // ========================
+
+    /**
+     * נתונים פרטיים לכל חוט: מחולל, סידור מהלכים, מערכים ומסלול הירידה
+     */
+    private final class Worker {
+        private final MctsPlayout playout;
+        private final MoveOrderer orderer = new MoveOrderer(MAX_PLY);
+        private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+        private final int[] scoreBuffer = new int[MoveGenerator.MAX_MOVES];
+        private final int[] path = new int[MAX_PLY + 2];
+
+        private long black;
+        private long white;
+        private int side;
+        long playouts;
+        int maxDepth;
+
+        Worker(long seed) {
+            playout = new MctsPlayout(seed);
+        }
+
+        void run(long rootBlack, long rootWhite, int player, long deadline) {
+            playouts = 0;
+            maxDepth = 0;
+            int sinceCheck = 0;
+
+            while (!stopRequested) {
+                black = rootBlack;
+                white = rootWhite;
+                side = player;
+                iterate();
+                playouts++;
+
+                if (++sinceCheck == CHECK_INTERVAL) {
+                    sinceCheck = 0;
+                    if (playoutBudget.addAndGet(-CHECK_INTERVAL) <= 0
+                            || (deadline != 0 && System.nanoTime() >= deadline)) {
+                        stopRequested = true;
+                    }
+                }
+            }
+        }
+
+        private void iterate() {
+            int node = ROOT;
+            int depth = 0;
+            path[0] = ROOT;
+            stats.addAndGet(ROOT, VIRTUAL_LOSS);
+
+            // בחירה - כל צומת במסלול מקבל virtual loss
+            int first;
+            while ((first = firstChild.get(node)) >= 0) {
+                node = selectChild(node, first);
+                stats.addAndGet(node, VIRTUAL_LOSS);
+                applyMove(moves[node]);
+                path[++depth] = node;
+            }
+
+            int result = MctsPlayout.terminalResult(black, white, side);
+            if (result < 0) {
+                if (visits(stats.get(node)) >= EXPANSION_VISITS + VIRTUAL_LOSS
+                        && first == NO_CHILDREN && firstChild.compareAndSet(node, NO_CHILDREN, EXPANDING)) {
+                    if (expand(node, black, white, side)) {
+                        node = firstChild.get(node);
+                        stats.addAndGet(node, VIRTUAL_LOSS);
+                        applyMove(moves[node]);
+                        path[++depth] = node;
+                        result = MctsPlayout.terminalResult(black, white, side);
+                    }
+                }
+                if (result < 0) {
+                    result = playout.run(black, white, side);
+                }
+            }
+
+            if (depth > maxDepth) {
+                maxDepth = depth;
+            }
+
+            // עדכון לאחור והסרת ה-virtual loss בפעולה אטומית אחת לכל צומת
+            for (int i = depth; i >= 0; i--) {
+                int reward = ((depth - i) & 1) == 1 ? result : MctsPlayout.WIN - result;
+                stats.addAndGet(path[i], reward * REWARD + VISIT - VIRTUAL_LOSS);
+            }
+        }
+
+        private int selectChild(int node, int first) {
+            int end = first + childCount[node];
+            double logParent = Math.log(visits(stats.get(node)));
+            double c = exploration;
+
+            int best = first;
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (int child = first; child < end; child++) {
+                long data = stats.get(child);
+                int n = visits(data);
+                if (n == 0) {
+                    return child;
+                }
+                double value = rewards(data) / (2.0 * n) + c * Math.sqrt(logParent / n);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * הקצאת גוש בנים ופרסומו. נקרא רק על ידי החוט שזכה ב-CAS (או על השורש לפני תחילת החיפוש)
+         */
+        boolean expand(int node, long black, long white, int side) {
+            int count = MoveGenerator.generateMoves(black, white, side, moveBuffer, 0);
+            int first = (count == 0) ? capacity : nodeCount.getAndAdd(count);
+            if (first + count > capacity) {
+                firstChild.set(node, POOL_FULL);
+                return false;
+            }
+
+            long own = (side == 0) ? black : white;
+            long opponent = (side == 0) ? white : black;
+            orderer.scoreMoves(moveBuffer, scoreBuffer, count, own, opponent, SearchResult.NO_MOVE, 0);
+
+            for (int i = 0; i < count; i++) {
+                int child = first + i;
+                moves[child] = MoveOrderer.pickNext(moveBuffer, scoreBuffer, i, count);
+                childCount[child] = 0;
+                stats.set(child, 0);
+                firstChild.set(child, NO_CHILDREN);
+            }
+            childCount[node] = count;
+            firstChild.set(node, first); // פרסום - אחרי כל הכתיבות לבנים
+            return true;
+        }
+
+        private void applyMove(int move) {
+            long cell = 1L << MoveGenerator.getPosition(move);
+            if (side == 0) {
+                black |= cell;
+            } else {
+                white |= cell;
+            }
+            int quadrant = MoveGenerator.getQuadrant(move);
+            boolean clockwise = MoveGenerator.isClockwise(move);
+            black = BitBoardRepresentation.rotateQuadrant(black, quadrant, clockwise);
+            white = BitBoardRepresentation.rotateQuadrant(white, quadrant, clockwise);
+            side = 1 - side;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.rongame.ai;
+
+import com.example.rongame.model.BitBoardRepresentation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * מדידת ביצועי החיפוש על קבוצה קבועה של מצבים (זרע קבוע - תוצאות ניתנות להשוואה)
+ * מדפיס את מספר הצמתים והזמן לעומק נתון, עם ובלי סידור מהלכים והפחתות/גיזום,
+ * את העומק הממוצע והצמתים לשנייה בתקציב זמן קבוע,
+ * ואת הזמן לעומק של החיפוש המקבילי ומספר המשחקים האקראיים לשנייה של MCTS לפי מספר החוטים
+ *
+ * הרצה: java com.example.rongame.ai.SearchBenchmark [עומק] [מספר מצבים] [מספר חוטים מקסימלי]
+ */
+public final class SearchBenchmark {
+
+    private static final long SEED = 20240601L;
+    private static final int DEFAULT_DEPTH = 3;
+    private static final int DEFAULT_POSITIONS = 12;
+    private static final long MCTS_TIME_MS = 500;
+    private static final long TIMED_SEARCH_MS = 1000;
+
+    private SearchBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int depth = (args.length > 0) ? Integer.parseInt(args[0]) : DEFAULT_DEPTH;
+        int positionCount = (args.length > 1) ? Integer.parseInt(args[1]) : DEFAULT_POSITIONS;
+        int maxThreads = (args.length > 2) ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        List<BitBoardRepresentation> positions = createPositions(positionCount);
+        System.out.println("Positions: " + positions.size() + ", depth: " + depth);
+
+        // השוואות הסידור וה-PVS - בלי הפחתות וגיזום
+        Consumer<AlphaBetaSearch> noPruning = search -> {
+            search.setLateMoveReductions(false);
+            search.setFutilityPruning(false);
+        };
+        run("no ordering", positions, depth, noPruning.andThen(search -> {
+            search.setMoveOrdering(false);
+            search.setPrincipalVariationSearch(false);
+            search.setAspirationWindows(false);
+        }));
+        run("ordering", positions, depth, noPruning.andThen(search -> {
+            search.setPrincipalVariationSearch(false);
+            search.setAspirationWindows(false);
+        }));
+        run("pvs+aspiration", positions, depth, noPruning);
+        run("lmr", positions, depth, search -> search.setFutilityPruning(false));
+        run("futility", positions, depth, search -> search.setLateMoveReductions(false));
+        run("lmr+futility", positions, depth, search -> { });
+
+        runTimed("no pruning", positions, noPruning);
+        runTimed("lmr", positions, search -> search.setFutilityPruning(false));
+        runTimed("futility", positions, search -> search.setLateMoveReductions(false));
+        runTimed("lmr+futility", positions, search -> { });
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            runParallel(positions, depth, threads);
+        }
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            runForkJoin(positions, depth, threads);
+        }
+
+        runMcts(positions);
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            runParallelMcts(positions, threads);
+        }
+    }
+
+    // העמקה הדרגתית עד העומק הנתון, עם הגדרות המנוע שנקבעו ב-configure
+    private static void run(String name, List<BitBoardRepresentation> positions, int depth,
+                            Consumer<AlphaBetaSearch> configure) {
+        long totalNodes = 0;
+        long start = System.nanoTime();
+
+        for (BitBoardRepresentation position : positions) {
+            // טבלה חדשה לכל מצב כדי שהמדידות לא ישפיעו זו על זו
+            AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(16));
+            configure.accept(search);
+            SearchResult result = search.searchIterative(position, position.getSideToMove(), SearchLimits.depth(depth));
+            totalNodes += result.nodes();
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("%-14s nodes=%,d time=%dms%n", name, totalNodes, millis);
+    }
+
+    // העומק הממוצע שהושלם והצמתים לשנייה בתקציב זמן קבוע לכל מצב
+    private static void runTimed(String name, List<BitBoardRepresentation> positions, Consumer<AlphaBetaSearch> configure) {
+        long totalNodes = 0;
+        int totalDepth = 0;
+        long start = System.nanoTime();
+
+        for (BitBoardRepresentation position : positions) {
+            AlphaBetaSearch search = new AlphaBetaSearch(new TranspositionTable(16));
+            configure.accept(search);
+            SearchResult result = search.searchIterative(position, position.getSideToMove(), SearchLimits.time(TIMED_SEARCH_MS));
+            totalNodes += result.nodes();
+            totalDepth += result.depth();
+        }
+
+        long nanos = System.nanoTime() - start;
+        System.out.printf("%-14s %dms/position avg depth=%.2f nodes/sec=%,d%n", name, TIMED_SEARCH_MS,
+                (double) totalDepth / positions.size(), totalNodes * 1_000_000_000L / Math.max(nanos, 1));
+    }
+
+    // זמן לעומק של Lazy SMP עם מספר חוטים נתון
+    private static void runParallel(List<BitBoardRepresentation> positions, int depth, int threads) {
+        long totalNodes = 0;
+        long start = System.nanoTime();
+
+        for (BitBoardRepresentation position : positions) {
+            LazySmpSearch search = new LazySmpSearch(threads, new TranspositionTable(16));
+            try {
+                SearchResult result = search.searchIterative(position, position.getSideToMove(), SearchLimits.depth(depth));
+                totalNodes += result.nodes();
+            } finally {
+                search.shutdown();
+            }
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("smp x%-9d nodes=%,d time=%dms%n", threads, totalNodes, millis);
+    }
+
+    // זמן לעומק של חיפוש YBWC הדטרמיניסטי; מדפיס גם סכום ביקורת של המהלכים שנבחרו
+    private static void runForkJoin(List<BitBoardRepresentation> positions, int depth, int threads) {
+        long totalNodes = 0;
+        long checksum = 0;
+        long start = System.nanoTime();
+
+        ForkJoinSearch search = new ForkJoinSearch(threads);
+        try {
+            for (BitBoardRepresentation position : positions) {
+                SearchResult result = search.search(position, position.getSideToMove(), depth);
+                totalNodes += result.nodes();
+                checksum = checksum * 31 + result.move() * 1_000_003L + result.score();
+            }
+        } finally {
+            search.shutdown();
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.printf("ybwc x%-8d nodes=%,d time=%dms moves=%x%n", threads, totalNodes, millis, checksum);
+    }
+
+    // משחקים אקראיים לשנייה של MCTS על חוט יחיד
+    private static void runMcts(List<BitBoardRepresentation> positions) {
+        MctsSearch search = new MctsSearch(MctsSearch.DEFAULT_CAPACITY, SEED);
+        long playouts = 0;
+        long start = System.nanoTime();
+
+        for (BitBoardRepresentation position : positions) {
+            playouts += search.search(position, position.getSideToMove(), SearchLimits.time(MCTS_TIME_MS)).nodes();
+        }
+
+        printPlayoutRate("mcts", playouts, System.nanoTime() - start);
+    }
+
+    // משחקים אקראיים לשנייה של MCTS המקבילי עם מספר חוטים נתון
+    private static void runParallelMcts(List<BitBoardRepresentation> positions, int threads) {
+        ParallelMctsSearch search = new ParallelMctsSearch(threads, ParallelMctsSearch.DEFAULT_CAPACITY, SEED);
+        long playouts = 0;
+        long start = System.nanoTime();
+
+        try {
+            for (BitBoardRepresentation position : positions) {
+                playouts += search.search(position, position.getSideToMove(), SearchLimits.time(MCTS_TIME_MS)).nodes();
+            }
+        } finally {
+            search.shutdown();
+        }
+
+        printPlayoutRate("mcts x" + threads, playouts, System.nanoTime() - start);
+    }
+
+    private static void printPlayoutRate(String name, long playouts, long nanos) {
+        long perSecond = playouts * 1_000_000_000L / Math.max(nanos, 1);
+        System.out.printf("%-14s playouts=%,d playouts/sec=%,d%n", name, playouts, perSecond);
+    }
+
+    /**
+     * יצירת מצבים מאמצע המשחק: מספר מהלכים אקראיים (עם זרע קבוע) שאינם מסיימים את המשחק
+     */
+    static List<BitBoardRepresentation> createPositions(int count) {
+        Random random = new Random(SEED);
+        List<BitBoardRepresentation> positions = new ArrayList<>();
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+
+        while (positions.size() < count) {
+            BitBoardRepresentation board = new BitBoardRepresentation();
+            int plies = 6 + random.nextInt(8);
+            boolean valid = true;
+
+            for (int ply = 0; ply < plies && valid; ply++) {
+                int side = board.getSideToMove();
+                int moveCount = MoveGenerator.generateMoves(board.getBlackBoard(), board.getWhiteBoard(), side, moves, 0);
+                int move = moves[random.nextInt(moveCount)];
+                board.doMove(MoveGenerator.getPosition(move), MoveGenerator.getQuadrant(move), MoveGenerator.getDirection(move));
+                valid = board.getStatus() == BitBoardRepresentation.BoardStatus.IN_PROGRESS;
+            }
+
+            if (valid) {
+                positions.add(board.copy());
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.rongame.ai;
+
+/**
+ * מגבלות לחיפוש בהעמקה הדרגתית
+ * @param timeMillis תקציב זמן במילישניות (0 - ללא הגבלה)
+ * @param maxNodes תקציב צמתים (0 - ללא הגבלה)
+ * @param maxDepth העומק המקסימלי
+ */
+public record SearchLimits(long timeMillis, long maxNodes, int maxDepth) {
+
+    public static final int UNLIMITED_DEPTH = 36;
+
+    public static SearchLimits time(long timeMillis) {
+        return new SearchLimits(timeMillis, 0, UNLIMITED_DEPTH);
+    }
+
+    public static SearchLimits nodes(long maxNodes) {
+        return new SearchLimits(0, maxNodes, UNLIMITED_DEPTH);
+    }
+
+    public static SearchLimits depth(int maxDepth) {
+        return new SearchLimits(0, 0, maxDepth);
+    }
+
+    public SearchLimits withMaxDepth(int depth) {
+        return new SearchLimits(timeMillis, maxNodes, depth);
+    }
+}
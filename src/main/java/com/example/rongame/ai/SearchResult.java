@@ -0,0 +1,66 @@
+package com.example.rongame.ai;
+
+/**
+ * תוצאת חיפוש: המהלך המלא הטוב ביותר (הנחה + סיבוב) והערכתו
+ * @param move המהלך בקידוד של MoveGenerator (או -1 אם אין מהלך)
+ * @param score ציון המהלך מנקודת המבט של השחקן שתורו
+ * @param depth עומק החיפוש שהושלם
+ * @param nodes מספר הצמתים שנסרקו
+ * @param principalVariation רצף המהלכים הצפוי (המהלך הזה ותשובות שני הצדדים), בקידוד של MoveGenerator
+ */
+public record SearchResult(int move, int score, int depth, long nodes, int[] principalVariation) {
+
+    public static final int NO_MOVE = -1;
+
+    private static final int[] EMPTY_VARIATION = new int[0];
+
+    // תוצאה ללא רצף מלא - הרצף הוא המהלך עצמו
+    public SearchResult(int move, int score, int depth, long nodes) {
+        this(move, score, depth, nodes, (move == NO_MOVE) ? EMPTY_VARIATION : new int[]{move});
+    }
+
+    public boolean hasMove() {
+        return move != NO_MOVE;
+    }
+
+    public int getRow() {
+        return MoveGenerator.getPosition(move) / 6;
+    }
+
+    public int getCol() {
+        return MoveGenerator.getPosition(move) % 6;
+    }
+
+    public int getQuadrant() {
+        return MoveGenerator.getQuadrant(move);
+    }
+
+    public boolean isClockwise() {
+        return MoveGenerator.isClockwise(move);
+    }
+
+    // המהלך כמערך [שורה, עמודה, רביע, כיוון] - כמו הפורמט של makeMove ו-makeRotation
+    public int[] toArray() {
+        return toArray(move);
+    }
+
+    public SearchResult withNodes(long totalNodes) {
+        return new SearchResult(move, score, depth, totalNodes, principalVariation);
+    }
+
+    /**
+     * הרצף הצפוי לתצוגה: כל איבר הוא [שורה, עמודה, רביע, כיוון]
+     */
+    public int[][] getPrincipalVariationArrays() {
+        int[][] moves = new int[principalVariation.length][];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = toArray(principalVariation[i]);
+        }
+        return moves;
+    }
+
+    private static int[] toArray(int move) {
+        int position = MoveGenerator.getPosition(move);
+        return new int[]{position / 6, position % 6, MoveGenerator.getQuadrant(move), MoveGenerator.getDirection(move)};
+    }
+}
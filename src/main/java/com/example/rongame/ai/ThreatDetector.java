@@ -0,0 +1,188 @@
+package com.example.rongame.ai;
+
+import com.example.rongame.model.BitBoardRepresentation;
+
+import java.util.Arrays;
+
+/**
+ * זיהוי איומים על בסיס מסכות ביטים
+ * לכל אחד מ-32 החלונות (הרצפים המנצחים של הלוח) יש מסכת קצוות מחושבת מראש (המשבצות שלפני ואחרי),
+ * כך שזיהוי איום הוא כמה פעולות AND ו-Long.bitCount בלבד
+ */
+public final class ThreatDetector {
+
+    private static final int BOARD_SIZE = 6;
+    private static final long FULL_BOARD = BitBoardRepresentation.FULL_BOARD;
+
+    // כיווני בדיקה (שורה, עמודה, אלכסון ימין, אלכסון שמאל)
+    private static final int[][] DIRECTIONS = {
+            {0, 1}, {1, 0}, {1, 1}, {1, -1}
+    };
+
+    // 4 משבצות מרכז הלוח
+    private static final long CENTER_MASK = (1L << 14) | (1L << 15) | (1L << 20) | (1L << 21);
+
+    // החלונות הם הרצפים המנצחים של BitBoardRepresentation; כאן נשמרים רק הקצוות והכיוון של כל חלון
+    private static final int WINDOW_COUNT = BitBoardRepresentation.WINNING_LINE_COUNT;
+    private static final long[] END_MASKS = new long[WINDOW_COUNT];
+    private static final int[] WINDOW_DIRECTIONS = new int[WINDOW_COUNT];
+
+    // לכל משבצת - החלונות שעוברים דרכה
+    private static final int[][] CELL_WINDOWS = new int[BOARD_SIZE * BOARD_SIZE][];
+
+    // ערך רצף לפי מספר הכלים בחלון (לסידור מהלכים)
+    private static final int[] LINE_VALUES = {
+            0, 1, PentagoAI.LINE_2_SCORE, PentagoAI.LINE_3_SCORE, PentagoAI.LINE_4_SCORE, 0
+    };
+
+    static {
+        for (int w = 0; w < WINDOW_COUNT; w++) {
+            long window = BitBoardRepresentation.getWinningMask(w);
+            int first = Long.numberOfTrailingZeros(window);
+            int last = 63 - Long.numberOfLeadingZeros(window);
+
+            // הכיוון לפי המרחק בין שתי המשבצות הראשונות בחלון
+            int step = Long.numberOfTrailingZeros(window & (window - 1)) - first;
+            int dirIndex = 0;
+            while (DIRECTIONS[dirIndex][0] * BOARD_SIZE + DIRECTIONS[dirIndex][1] != step) {
+                dirIndex++;
+            }
+            int rowDelta = DIRECTIONS[dirIndex][0];
+            int colDelta = DIRECTIONS[dirIndex][1];
+
+            END_MASKS[w] = cellMask(first / BOARD_SIZE - rowDelta, first % BOARD_SIZE - colDelta)
+                    | cellMask(last / BOARD_SIZE + rowDelta, last % BOARD_SIZE + colDelta);
+            WINDOW_DIRECTIONS[w] = dirIndex;
+        }
+
+        for (int position = 0; position < CELL_WINDOWS.length; position++) {
+            int count = 0;
+            int[] windows = new int[WINDOW_COUNT];
+            for (int w = 0; w < WINDOW_COUNT; w++) {
+                if ((BitBoardRepresentation.getWinningMask(w) & (1L << position)) != 0) {
+                    windows[count++] = w;
+                }
+            }
+            CELL_WINDOWS[position] = Arrays.copyOf(windows, count);
+        }
+    }
+
+    private ThreatDetector() {
+    }
+
+    /**
+     * מאזן האיומים מנקודת המבט של שחקן: סכום ציוני האיומים שלו פחות סכום ציוני היריב.
+     * איום הוא רצף של 2+ כלים של שחקן אחד בחלון ללא כלים של השני.
+     * הניקוד זהה לשני השחקנים, כך שהמאזן של היריב הוא בדיוק המינוס שלו (כנדרש ב-negamax)
+     */
+    public static int threatBalance(long black, long white, int player) {
+        int balance = 0;
+        long empty = ~(black | white) & FULL_BOARD;
+
+        for (int w = 0; w < WINDOW_COUNT; w++) {
+            long window = BitBoardRepresentation.getWinningMask(w);
+            long blackStones = black & window;
+            long whiteStones = white & window;
+
+            if ((blackStones != 0) == (whiteStones != 0)) {
+                continue; // חלון ריק או חסום לשני השחקנים
+            }
+
+            long stones = (blackStones != 0) ? blackStones : whiteStones;
+            int count = Long.bitCount(stones);
+            if (count < 2) {
+                continue;
+            }
+
+            int owner = (blackStones != 0) ? 0 : 1;
+            int openCount = Long.bitCount((window | END_MASKS[w]) & empty);
+            int score = scoreThreat(count, openCount, WINDOW_DIRECTIONS[w], stones);
+            balance += (owner == player) ? score : -score;
+        }
+
+        return balance;
+    }
+
+    /**
+     * הערכה מהירה של הנחת כלי במשבצת (לסידור מהלכים): כמה היא מאריכה רצפים שלנו
+     * וכמה היא חוסמת רצפים של היריב בחלונות שעוברים דרכה
+     */
+    public static int placementScore(long own, long opponent, int position) {
+        int score = 0;
+        for (int w : CELL_WINDOWS[position]) {
+            long window = BitBoardRepresentation.getWinningMask(w);
+            long ownStones = own & window;
+            long opponentStones = opponent & window;
+
+            if (opponentStones == 0) {
+                score += LINE_VALUES[Long.bitCount(ownStones)];
+            } else if (ownStones == 0) {
+                score += LINE_VALUES[Long.bitCount(opponentStones)] / 2;
+            }
+        }
+        return score;
+    }
+
+    /**
+     * האם הנחה במשבצת משלימה רביעייה שלנו בחלון שאין בו כלי יריב,
+     * או חוסמת חלון שיש בו רביעייה של היריב ואין בו כלים שלנו (הסיבוב לא נבדק)
+     */
+    public static boolean makesOrBlocksFour(long own, long opponent, int position) {
+        for (int w : CELL_WINDOWS[position]) {
+            long window = BitBoardRepresentation.getWinningMask(w);
+            long ownStones = own & window;
+            long opponentStones = opponent & window;
+
+            if (opponentStones == 0 && Long.bitCount(ownStones) >= 3) {
+                return true;
+            }
+            if (ownStones == 0 && Long.bitCount(opponentStones) >= 4) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * חישוב הציון של איום
+     */
+    static int scoreThreat(int count, int openCount, int direction, long stones) {
+        // ציון בסיסי לפי מספר הכלים ברצף
+        int score;
+        switch (count) {
+            case 4:
+                score = PentagoAI.LINE_4_SCORE * 2; // הגדלת הציון לרצף של 4
+                break;
+            case 3:
+                score = PentagoAI.LINE_3_SCORE;
+                break;
+            case 2:
+                score = PentagoAI.LINE_2_SCORE;
+                break;
+            default:
+                score = 0;
+        }
+
+        // בונוס משמעותי אם יש שני סופים פתוחים
+        if (openCount >= 2) {
+            score *= 2.0; // הכפלת הציון לרצף פתוח משני הצדדים
+        } else {
+            // בונוס רגיל לפי מספר הסופים הפתוחים
+            score *= (1 + 0.2 * openCount);
+        }
+
+        // בונוס לפי מיקום האיום (אלכסונים מרכזיים מקבלים בונוס)
+        if ((direction == 2 || direction == 3) && (stones & CENTER_MASK) != 0) {
+            score *= 1.3;
+        }
+
+        return score;
+    }
+
+    private static long cellMask(int row, int col) {
+        if (row < 0 || row >= BOARD_SIZE || col < 0 || col >= BOARD_SIZE) {
+            return 0L;
+        }
+        return 1L << (row * BOARD_SIZE + col);
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.rongame.ai;
+
+import com.example.rongame.model.BitBoardRepresentation;
+
+import java.util.Arrays;
+
+/**
+ * חיפוש במרחב האיומים: מוצא ניצחונות בכפייה עמוקים על ידי בדיקת מהלכים מאיימים בלבד.
+ *
+ * מהלך מאיים של התוקף הוא מהלך מלא שאחריו יש לו ניצחון במהלך אחד (בהנחה או בסיבוב),
+ * והמגן לא יכול לנצח מיד בעצמו. אצל המגן נבדקות כל התשובות: תשובה שלא חוסמת את האיום מפסידה מיד,
+ * ותשובה שחוסמת מחייבת את התוקף להמשיך לאיים. לכן ניצחון שנמצא הוא ניצחון מוכח.
+ * מהלך שמשלים רצף לשני השחקנים הוא ניצחון של השחור, כמו ב-PentagoModel.
+ */
+public class ThreatSpaceSearch {
+
+    public static final int DEFAULT_MAX_ATTACKS = 5;
+    public static final long DEFAULT_NODE_BUDGET = 10_000L;
+
+    private static final int QUADRANT_COUNT = 4;
+    private static final int MAX_PLY = 2 * 18 + 2;
+    private static final int CACHE_BITS = 16;
+
+    // פחות מארבעה כלים - אין ניצחון במהלך אחד
+    private static final int MIN_STONES_FOR_WIN = 4;
+
+    private final int[][] moveBuffers = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][] scoreBuffers = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+
+    // מטמון של מצבים שבהם התוקף לא מצא ניצחון (לפי העומק שנבדק)
+    private final long[] failedBlack = new long[1 << CACHE_BITS];
+    private final long[] failedWhite = new long[1 << CACHE_BITS];
+    private final int[] failedDepth = new int[1 << CACHE_BITS];
+
+    private long nodes;
+    private long nodeBudget;
+    private boolean aborted;
+    private int attacker;
+    private int winningMove;
+    private int winningPlies;
+
+    /**
+     * חיפוש ניצחון בכפייה עבור השחקן שתורו
+     * @param maxAttacks מספר המהלכים המקסימלי של התוקף ברצף
+     * @return המהלך הראשון ברצף המנצח (ציון WIN_SCORE פחות האורך), או תוצאה ללא מהלך
+     */
+    public SearchResult findWin(BitBoardRepresentation board, int player, int maxAttacks, long nodeBudget) {
+        this.nodes = 0;
+        this.nodeBudget = nodeBudget;
+        this.aborted = false;
+        this.attacker = player;
+        this.winningMove = SearchResult.NO_MOVE;
+        Arrays.fill(failedDepth, 0);
+
+        long black = board.getBlackBoard();
+        long white = board.getWhiteBoard();
+
+        // העמקה הדרגתית - הרצף הקצר ביותר נמצא ראשון
+        for (int attacks = 1; attacks <= maxAttacks && !aborted; attacks++) {
+            if (attack(black, white, attacks, 0)) {
+                return new SearchResult(winningMove, AlphaBetaSearch.WIN_SCORE - winningPlies, winningPlies, nodes);
+            }
+        }
+        return new SearchResult(SearchResult.NO_MOVE, 0, 0, nodes);
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    // ========================
+    // חיפוש
+    // ========================
+
+    // צומת "או": לתוקף יש מהלך שמנצח מיד או מאיים, וכל תשובה של המגן עדיין מפסידה
+    private boolean attack(long black, long white, int attacks, int ply) {
+        if (++nodes > nodeBudget && nodeBudget != 0) {
+            aborted = true;
+        }
+        if (aborted) {
+            return false;
+        }
+
+        long own = (attacker == 0) ? black : white;
+        long opponent = (attacker == 0) ? white : black;
+
+        int immediate = findImmediateWin(own, opponent, attacker);
+        if (immediate != SearchResult.NO_MOVE) {
+            if (ply == 0) {
+                winningMove = immediate;
+                winningPlies = 1;
+            }
+            return true;
+        }
+        if (attacks == 0 || hasFailed(black, white, attacks)) {
+            return false;
+        }
+
+        // המהלכים המאיימים, ממוינים לפי מספר דרכי הניצחון שהם יוצרים
+        int[] moves = moveBuffers[ply];
+        int[] scores = scoreBuffers[ply];
+        int count = MoveGenerator.generateMoves(black, white, attacker, moves, 0);
+        int threats = 0;
+        for (int i = 0; i < count; i++) {
+            long childOwn = applyMove(own, moves[i], true);
+            long childOpponent = applyMove(opponent, moves[i], false);
+            if (BitBoardRepresentation.hasWinningLine(childOpponent)) {
+                continue; // הסיבוב השלים רצף של היריב
+            }
+            int ways = countWinningWays(childOwn, childOpponent, attacker);
+            if (ways > 0 && findImmediateWin(childOpponent, childOwn, 1 - attacker) == SearchResult.NO_MOVE) {
+                moves[threats] = moves[i];
+                scores[threats] = ways;
+                threats++;
+            }
+        }
+
+        for (int i = 0; i < threats; i++) {
+            int move = MoveOrderer.pickNext(moves, scores, i, threats);
+            long childBlack = applyMove(black, move, attacker == 0);
+            long childWhite = applyMove(white, move, attacker == 1);
+            if (defend(childBlack, childWhite, attacks, ply + 1)) {
+                if (ply == 0) {
+                    winningMove = move;
+                    winningPlies = 2 * attacks + 1;
+                }
+                return true;
+            }
+            if (aborted) {
+                return false;
+            }
+        }
+
+        if (!aborted) {
+            markFailed(black, white, attacks);
+        }
+        return false;
+    }
+
+    // צומת "וגם": כל תשובה של המגן מפסידה - מיד, או אחרי המשך ההתקפה
+    private boolean defend(long black, long white, int attacks, int ply) {
+        nodes++;
+        int defender = 1 - attacker;
+        int[] moves = moveBuffers[ply];
+        int count = MoveGenerator.generateMoves(black, white, defender, moves, 0);
+        if (count == 0) {
+            return false; // לוח מלא - תיקו
+        }
+
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            long childBlack = applyMove(black, move, defender == 0);
+            long childWhite = applyMove(white, move, defender == 1);
+            long own = (attacker == 0) ? childBlack : childWhite;
+            long opponent = (attacker == 0) ? childWhite : childBlack;
+
+            boolean attackerLine = BitBoardRepresentation.hasWinningLine(own);
+            boolean defenderLine = BitBoardRepresentation.hasWinningLine(opponent);
+            if (attackerLine && (attacker == 0 || !defenderLine)) {
+                continue; // המגן השלים בסיבוב רצף של התוקף (כשלשניהם יש רצף - השחור מנצח)
+            }
+            if (defenderLine) {
+                return false; // המגן ניצח
+            }
+            if (findImmediateWin(own, opponent, attacker) != SearchResult.NO_MOVE) {
+                continue; // האיום לא נחסם
+            }
+            if (!attack(childBlack, childWhite, attacks - 1, ply + 1)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ========================
+    // ניצחון במהלך אחד
+    // ========================
+
+    /**
+     * מהלך שמנצח מיד: הנחה וסיבוב שאחריהם לשחקן יש רצף, וליריב אין - או שהשחקן שחור
+     * @param side הצבע של own (0 - שחור)
+     * @return המהלך המקודד, או NO_MOVE
+     */
+    static int findImmediateWin(long own, long opponent, int side) {
+        long empty = MoveGenerator.emptyCells(own, opponent);
+        if (empty == 0 || Long.bitCount(own) < MIN_STONES_FOR_WIN) {
+            return SearchResult.NO_MOVE;
+        }
+
+        for (int quadrant = 0; quadrant < QUADRANT_COUNT; quadrant++) {
+            for (int direction = 0; direction < 2; direction++) {
+                boolean clockwise = direction == 1;
+                long rotatedOwn = BitBoardRepresentation.rotateQuadrant(own, quadrant, clockwise);
+                long rotatedOpponent = BitBoardRepresentation.rotateQuadrant(opponent, quadrant, clockwise);
+                if (side == 1 && BitBoardRepresentation.hasWinningLine(rotatedOpponent)) {
+                    continue;
+                }
+                long rotatedEmpty = BitBoardRepresentation.rotateQuadrant(empty, quadrant, clockwise);
+                long cell = winningCell(rotatedOwn, rotatedEmpty);
+                if (cell != 0) {
+                    // המשבצת לפני הסיבוב
+                    long placed = BitBoardRepresentation.rotateQuadrant(cell, quadrant, !clockwise);
+                    return MoveGenerator.encode(Long.numberOfTrailingZeros(placed), quadrant, direction);
+                }
+            }
+        }
+        return SearchResult.NO_MOVE;
+    }
+
+    /**
+     * המשבצות (לפני הסיבוב) שהנחה של own עליהן מנצחת מיד עם סיבוב כלשהו
+     * @param side הצבע של own (0 - שחור)
+     */
+    static long winningPlacements(long own, long opponent, int side) {
+        return linePlacements(own, opponent, side == 1);
+    }
+
+    /**
+     * המשבצות שהנחה של own עליהן משלימה לו רצף עם סיבוב כלשהו, גם אם גם ליריב נוצר רצף
+     */
+    static long lineCompletingPlacements(long own, long opponent) {
+        return linePlacements(own, opponent, false);
+    }
+
+    private static long linePlacements(long own, long opponent, boolean excludeOpponentLines) {
+        long empty = MoveGenerator.emptyCells(own, opponent);
+        if (Long.bitCount(own) < MIN_STONES_FOR_WIN) {
+            return 0;
+        }
+        long placements = 0;
+        for (int quadrant = 0; quadrant < QUADRANT_COUNT; quadrant++) {
+            for (int direction = 0; direction < 2; direction++) {
+                boolean clockwise = direction == 1;
+                long rotatedOpponent = BitBoardRepresentation.rotateQuadrant(opponent, quadrant, clockwise);
+                if (excludeOpponentLines && BitBoardRepresentation.hasWinningLine(rotatedOpponent)) {
+                    continue;
+                }
+                long rotatedOwn = BitBoardRepresentation.rotateQuadrant(own, quadrant, clockwise);
+                long rotatedEmpty = BitBoardRepresentation.rotateQuadrant(empty, quadrant, clockwise);
+                long cells = winningCells(rotatedOwn, rotatedEmpty);
+                placements |= BitBoardRepresentation.rotateQuadrant(cells, quadrant, !clockwise);
+            }
+        }
+        return placements;
+    }
+
+    // מספר דרכי הניצחון במהלך אחד (סיבוב ומשבצת) - מדד לחוזק האיום; side הוא הצבע של own
+    static int countWinningWays(long own, long opponent, int side) {
+        long empty = MoveGenerator.emptyCells(own, opponent);
+        if (Long.bitCount(own) < MIN_STONES_FOR_WIN) {
+            return 0;
+        }
+        int ways = 0;
+        for (int quadrant = 0; quadrant < QUADRANT_COUNT; quadrant++) {
+            for (int direction = 0; direction < 2; direction++) {
+                boolean clockwise = direction == 1;
+                long rotatedOpponent = BitBoardRepresentation.rotateQuadrant(opponent, quadrant, clockwise);
+                if (side == 1 && BitBoardRepresentation.hasWinningLine(rotatedOpponent)) {
+                    continue;
+                }
+                long rotatedOwn = BitBoardRepresentation.rotateQuadrant(own, quadrant, clockwise);
+                long rotatedEmpty = BitBoardRepresentation.rotateQuadrant(empty, quadrant, clockwise);
+                ways += Long.bitCount(winningCells(rotatedOwn, rotatedEmpty));
+            }
+        }
+        return ways;
+    }
+
+    // משבצת ריקה אחת שמשלימה רצף (או כל משבצת אם כבר יש רצף), 0 אם אין
+    private static long winningCell(long own, long empty) {
+        long cells = winningCells(own, empty);
+        return Long.lowestOneBit(cells);
+    }
+
+    private static long winningCells(long own, long empty) {
+        long cells = 0;
+        for (int i = 0; i < BitBoardRepresentation.WINNING_LINE_COUNT; i++) {
+            long mask = BitBoardRepresentation.getWinningMask(i);
+            long missing = mask & ~own;
+            if (missing == 0) {
+                return empty; // כבר יש רצף - כל הנחה מנצחת
+            }
+            if ((missing & (missing - 1)) == 0 && (missing & empty) != 0) {
+                cells |= missing;
+            }
+        }
+        return cells;
+    }
+
+    // ========================
+    // עזר
+    // ========================
+
+    private static long applyMove(long pieces, int move, boolean placesPiece) {
+        if (placesPiece) {
+            pieces |= 1L << MoveGenerator.getPosition(move);
+        }
+        return BitBoardRepresentation.rotateQuadrant(pieces, MoveGenerator.getQuadrant(move), MoveGenerator.isClockwise(move));
+    }
+
+    private int cacheIndex(long black, long white) {
+        long h = black * 0x9E3779B97F4A7C15L ^ white * 0xC2B2AE3D27D4EB4FL;
+        return (int) (h >>> (64 - CACHE_BITS));
+    }
+
+    private boolean hasFailed(long black, long white, int attacks) {
+        int index = cacheIndex(black, white);
+        return failedDepth[index] >= attacks && failedBlack[index] == black && failedWhite[index] == white;
+    }
+
+    private void markFailed(long black, long white, int attacks) {
+        int index = cacheIndex(black, white);
+        failedBlack[index] = black;
+        failedWhite[index] = white;
+        failedDepth[index] = attacks;
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.rongame.ai;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * טבלת טרנספוזיציה בגודל קבוע (חזקה של 2) במערכים מקבילים של long, ללא אובייקט לכל רשומה
+ *
+ * כל דלי מכיל שתי רשומות: הראשונה נשמרת לפי עומק (מוחלפת רק בחיפוש עמוק יותר או ברשומה ישנה),
+ * השנייה מוחלפת תמיד. כל רשומה נשמרת כ-(מפתח XOR נתונים, נתונים) - שיטת ה-XOR ללא נעילות:
+ * אם שני חוטים כותבים במקביל ורשומה נקרעת, הבדיקה בקריאה נכשלת והרשומה פשוט מתעלמת
+ *
+ * פריסת הנתונים (64 ביט): ביטים 0-9 מהלך+1, 10-31 ציון, 32-39 עומק, 40-41 סוג גבול, 42-49 דור
+ */
+public class TranspositionTable {
+
+    // סוגי גבול
+    public static final int EXACT = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int UPPER_BOUND = 3;
+
+    public static final long NO_ENTRY = 0L;
+    public static final int DEFAULT_SIZE_MB = 16;
+
+    private static final int BUCKET_SIZE = 2;
+    private static final int ENTRY_BYTES = 2 * Long.BYTES;
+
+    private static final int MOVE_BITS = 10;
+    private static final int SCORE_SHIFT = 10;
+    private static final int SCORE_BITS = 22;
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int GENERATION_SHIFT = 42;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+
+    private volatile int generation;
+
+    // מונים - LongAdder כדי שחוטי חיפוש רבים לא יתחרו על אותו מונה
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    public TranspositionTable() {
+        this(DEFAULT_SIZE_MB);
+    }
+
+    /**
+     * @param megabytes גודל הטבלה במגה-בייט (מעוגל כלפי מטה לחזקה של 2 דליים)
+     */
+    public TranspositionTable(int megabytes) {
+        long bytes = Math.max(1, megabytes) * 1024L * 1024L;
+        long buckets = Long.highestOneBit(bytes / (ENTRY_BYTES * BUCKET_SIZE));
+        int bucketCount = (int) Math.min(buckets, 1 << 26);
+
+        this.keys = new long[bucketCount * BUCKET_SIZE];
+        this.data = new long[bucketCount * BUCKET_SIZE];
+        this.bucketMask = bucketCount - 1;
+    }
+
+    // ========================
+    // קריאה וכתיבה
+    // ========================
+
+    /**
+     * חיפוש רשומה לפי מפתח
+     * @return הנתונים הארוזים, או NO_ENTRY אם אין רשומה תקפה
+     */
+    public long probe(long hash) {
+        int index = indexOf(hash);
+        boolean occupied = false;
+
+        for (int slot = index; slot < index + BUCKET_SIZE; slot++) {
+            long entryData = data[slot];
+            if (entryData == NO_ENTRY) {
+                continue;
+            }
+            if ((keys[slot] ^ entryData) == hash) {
+                hits.increment();
+                return entryData;
+            }
+            occupied = true;
+        }
+
+        if (occupied) {
+            collisions.increment();
+        }
+        misses.increment();
+        return NO_ENTRY;
+    }
+
+    /**
+     * שמירת תוצאת חיפוש
+     * @param move המהלך הטוב ביותר (או SearchResult.NO_MOVE)
+     * @param bound EXACT / LOWER_BOUND / UPPER_BOUND
+     */
+    public void store(long hash, int move, int score, int depth, int bound) {
+        int index = indexOf(hash);
+        int currentGeneration = generation;
+        long entryData = pack(move, score, depth, bound, currentGeneration);
+
+        // רשומה לפי עומק: אותו מצב, חיפוש עמוק יותר, או רשומה מדור קודם
+        long preferredData = data[index];
+        boolean samePosition = (keys[index] ^ preferredData) == hash;
+        if (preferredData == NO_ENTRY
+                || samePosition
+                || depth >= getDepth(preferredData)
+                || getGeneration(preferredData) != (currentGeneration & 0xFF)) {
+            // שמירה על המהלך הקיים אם לחיפוש החדש אין מהלך
+            if (samePosition && move == SearchResult.NO_MOVE) {
+                entryData = pack(getMove(preferredData), score, depth, bound, currentGeneration);
+            }
+            keys[index] = hash ^ entryData;
+            data[index] = entryData;
+            return;
+        }
+
+        // רשומה שמוחלפת תמיד
+        keys[index + 1] = hash ^ entryData;
+        data[index + 1] = entryData;
+    }
+
+    // ========================
+    // ניהול
+    // ========================
+
+    // התחלת חיפוש חדש (מהלך חדש או משחק חדש) - רשומות מדורות קודמים הופכות לניתנות להחלפה
+    public void newSearch() {
+        generation = (generation + 1) & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+        resetCounters();
+    }
+
+    public void resetCounters() {
+        hits.reset();
+        misses.reset();
+        collisions.reset();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getCollisions() {
+        return collisions.sum();
+    }
+
+    public int getEntryCount() {
+        return keys.length;
+    }
+
+    // ========================
+    // פענוח נתונים ארוזים
+    // ========================
+
+    public static int getMove(long entryData) {
+        return (int) (entryData & ((1 << MOVE_BITS) - 1)) - 1;
+    }
+
+    public static int getScore(long entryData) {
+        // הזזה שמאלה ואז ימינה לשחזור הסימן של 22 הביטים
+        return (int) (entryData << (64 - SCORE_SHIFT - SCORE_BITS) >> (64 - SCORE_BITS));
+    }
+
+    public static int getDepth(long entryData) {
+        return (int) ((entryData >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    public static int getBound(long entryData) {
+        return (int) ((entryData >>> BOUND_SHIFT) & 3);
+    }
+
+    public static int getGeneration(long entryData) {
+        return (int) ((entryData >>> GENERATION_SHIFT) & 0xFF);
+    }
+
+    private static long pack(int move, int score, int depth, int bound, int generation) {
+        return ((long) (move + 1) & ((1 << MOVE_BITS) - 1))
+                | (((long) score & ((1L << SCORE_BITS) - 1)) << SCORE_SHIFT)
+                | ((long) (depth & 0xFF) << DEPTH_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) (generation & 0xFF) << GENERATION_SHIFT);
+    }
+
+    private int indexOf(long hash) {
+        // הביטים העליונים של המפתח - הנמוכים משמשים גם לאימות
+        return (int) ((hash >>> 32) & bucketMask) * BUCKET_SIZE;
+    }
+}
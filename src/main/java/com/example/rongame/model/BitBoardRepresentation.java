@@ -6,13 +6,112 @@ public class BitBoardRepresentation {
     private long blackBoard;
     private long whiteBoard;
 
+    // מפתח Zobrist של המצב (כולל השחקן שתורו) - מתעדכן בכל הנחה וסיבוב
+    private long zobristHash;
+    private int sideToMove;
+
+    // מחסנית ביטול מהלכים - שלושה מספרים ארוכים לכל מהלך (שחור, לבן, מפתח)
+    // מוקצית פעם אחת בשימוש הראשון ולא יוצרת אובייקטים לכל מהלך
+    private long[] undoStack;
+    private int undoDepth;
+
     // קבועים
     private static final int BOARD_SIZE = 6;
     private static final int WINNING_LENGTH = 5;
+    private static final int MAX_MOVES = 36;
+    private static final int UNDO_ENTRY_SIZE = 3;
+    public static final int WINNING_LINE_COUNT = 32;
+    public static final long FULL_BOARD = (1L << 36) - 1;
+
+    // טבלת מסכות של כל הרצפים המנצחים - מחושבת פעם אחת
+    private static final long[] WINNING_MASKS = createWinningMasks();
+
+    // היסט המשבצת השמאלית העליונה של כל רביע, ומסכת 9 המשבצות שלו
+    private static final int[] QUADRANT_OFFSETS = {0, 3, 18, 21};
+    private static final long[] QUADRANT_MASKS = {
+            spreadQuadrantBits(0x1FF, 0), spreadQuadrantBits(0x1FF, 1),
+            spreadQuadrantBits(0x1FF, 2), spreadQuadrantBits(0x1FF, 3)
+    };
+
+    // טבלאות סיבוב - מיפוי 9 ביטים של רביע ל-9 הביטים אחרי סיבוב
+    private static final short[] ROTATE_CLOCKWISE = createRotationTable(true);
+    private static final short[] ROTATE_COUNTER_CLOCKWISE = createRotationTable(false);
+
+    // טבלאות Zobrist - מפתח אקראי לכל משבצת ולכל שחקן, ומפתח לשחקן שתורו
+    // הגרעין קבוע כדי שהמפתחות יהיו זהים בין הרצות (ספרי פתיחה, קבצי ניתוח)
+    private static final long ZOBRIST_SEED = 0x5EED_9E37_79B9_7F4AL;
+    private static final long[][] ZOBRIST_KEYS = createZobristKeys();
+    private static final long SIDE_TO_MOVE_KEY = splitMix64(ZOBRIST_SEED ^ 0xB1ACL);
+
+    // טבלאות Zobrist לפי רביע - ה-XOR של מפתחות כל המשבצות הדלוקות בכל אחד מ-512 המצבים,
+    // כך שעדכון המפתח אחרי סיבוב עולה ארבע פעולות XOR
+    private static final long[][][] QUADRANT_ZOBRIST = createQuadrantZobrist();
+
+    // סיווג מצב הלוח (ניצחון שחור, ניצחון לבן, ניצחון לשניהם, תיקו, בתהליך)
+    public enum BoardStatus {
+        IN_PROGRESS, BLACK_WINS, WHITE_WINS, BOTH_WIN, DRAW
+    }
 
     public BitBoardRepresentation() {
         blackBoard = 0L;
         whiteBoard = 0L;
+        zobristHash = 0L;
+        sideToMove = 0;
+    }
+
+    // בנאי העתקה - העתקת שני המספרים הארוכים בלבד
+    public BitBoardRepresentation(BitBoardRepresentation other) {
+        blackBoard = other.blackBoard;
+        whiteBoard = other.whiteBoard;
+        zobristHash = other.zobristHash;
+        sideToMove = other.sideToMove;
+    }
+
+    // יצירת לוח ממצב קפוא
+    public BitBoardRepresentation(BoardSnapshot snapshot) {
+        blackBoard = snapshot.black();
+        whiteBoard = snapshot.white();
+        zobristHash = computeHash(blackBoard, whiteBoard, 0);
+        sideToMove = 0;
+    }
+
+    public BitBoardRepresentation copy() {
+        return new BitBoardRepresentation(this);
+    }
+
+    // מצב קפוא (בלתי ניתן לשינוי) של הלוח הנוכחי
+    public BoardSnapshot snapshot() {
+        return new BoardSnapshot(blackBoard, whiteBoard);
+    }
+
+    public long getBlackBoard() {
+        return blackBoard;
+    }
+
+    public long getWhiteBoard() {
+        return whiteBoard;
+    }
+
+    // הנציג הקנוני של מחלקת הסימטריה של הלוח והטרנספורמציה שהובילה אליו
+    public BoardSymmetry.Canonical canonical() {
+        return BoardSymmetry.canonical(blackBoard, whiteBoard);
+    }
+
+    // מפתח Zobrist של המצב הנוכחי
+    public long getZobristHash() {
+        return zobristHash;
+    }
+
+    public int getSideToMove() {
+        return sideToMove;
+    }
+
+    // עדכון השחקן שתורו (משנה גם את המפתח)
+    public void setSideToMove(int player) {
+        if (player != sideToMove) {
+            sideToMove = player;
+            zobristHash ^= SIDE_TO_MOVE_KEY;
+        }
     }
 
 
@@ -22,13 +121,24 @@ public class BitBoardRepresentation {
         return ((blackBoard | whiteBoard) & mask) == 0;
     }
 
+    // מסכת כל המשבצות הפנויות בלוח
+    public long getEmptyMask() {
+        return ~(blackBoard | whiteBoard) & FULL_BOARD;
+    }
+
     //  הנחת כלי משחק במיקום מסוים
     public void placePiece(int position, int player) {
         long mask = 1L << position;
         if (player == 0) {
-            blackBoard |= mask;
+            if ((blackBoard & mask) == 0) {
+                blackBoard |= mask;
+                zobristHash ^= ZOBRIST_KEYS[0][position];
+            }
         } else {
-            whiteBoard |= mask;
+            if ((whiteBoard & mask) == 0) {
+                whiteBoard |= mask;
+                zobristHash ^= ZOBRIST_KEYS[1][position];
+            }
         }
     }
 
@@ -46,6 +156,48 @@ public class BitBoardRepresentation {
         }
     }
 
+    /**
+     * ביצוע מהלך מלא (הנחה + סיבוב) עבור השחקן שתורו, עם שמירה לביטול
+     * @param position מיקום המשבצת (0-35)
+     * @param quadrant רביע לסיבוב (0-3)
+     * @param direction כיוון הסיבוב (0=נגד השעון, 1=עם השעון)
+     */
+    public void doMove(int position, int quadrant, int direction) {
+        if (undoStack == null) {
+            undoStack = new long[MAX_MOVES * UNDO_ENTRY_SIZE];
+        }
+
+        int base = undoDepth * UNDO_ENTRY_SIZE;
+        undoStack[base] = blackBoard;
+        undoStack[base + 1] = whiteBoard;
+        undoStack[base + 2] = zobristHash;
+        undoDepth++;
+
+        placePiece(position, sideToMove);
+        rotateQuadrant(quadrant, direction == 1);
+        sideToMove = 1 - sideToMove;
+        zobristHash ^= SIDE_TO_MOVE_KEY;
+    }
+
+    // ביטול המהלך האחרון שבוצע ב-doMove
+    public void undoMove() {
+        if (undoDepth == 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+
+        undoDepth--;
+        int base = undoDepth * UNDO_ENTRY_SIZE;
+        blackBoard = undoStack[base];
+        whiteBoard = undoStack[base + 1];
+        zobristHash = undoStack[base + 2];
+        sideToMove = 1 - sideToMove;
+    }
+
+    // מספר המהלכים שניתן לבטל
+    public int getUndoDepth() {
+        return undoDepth;
+    }
+
     /**
      * סיבוב רביע בלוח
      * רביעים:
@@ -54,118 +206,218 @@ public class BitBoardRepresentation {
      * 2 | 3
      */
     public void rotateQuadrant(int quadrant, boolean clockwise) {
-        int startRow = (quadrant / 2) * 3;
-        int startCol = (quadrant % 2) * 3;
-
-        // שמירת המצב הנוכחי של הרביע
-        int[][] tempBoard = new int[3][3];
-        for (int r = 0; r < 3; r++) {
-            for (int c = 0; c < 3; c++) {
-                tempBoard[r][c] = getPieceAt(startRow + r, startCol + c);
-            }
+        short[] table = clockwise ? ROTATE_CLOCKWISE : ROTATE_COUNTER_CLOCKWISE;
+        long quadrantMask = QUADRANT_MASKS[quadrant];
+
+        int blackBits = getQuadrantBits(blackBoard, quadrant);
+        int whiteBits = getQuadrantBits(whiteBoard, quadrant);
+        int rotatedBlack = table[blackBits];
+        int rotatedWhite = table[whiteBits];
+
+        blackBoard = (blackBoard & ~quadrantMask) | spreadQuadrantBits(rotatedBlack, quadrant);
+        whiteBoard = (whiteBoard & ~quadrantMask) | spreadQuadrantBits(rotatedWhite, quadrant);
+
+        // עדכון המפתח: הסרת תוכן הרביע הישן והוספת התוכן המסובב
+        zobristHash ^= QUADRANT_ZOBRIST[0][quadrant][blackBits] ^ QUADRANT_ZOBRIST[0][quadrant][rotatedBlack]
+                ^ QUADRANT_ZOBRIST[1][quadrant][whiteBits] ^ QUADRANT_ZOBRIST[1][quadrant][rotatedWhite];
+    }
+
+    // סיבוב רביע על מספר ארוך בודד - חילוץ 9 הביטים, טבלת תמורה והחזרה למקום, ללא הקצאות
+    public static long rotateQuadrant(long board, int quadrant, boolean clockwise) {
+        int bits = getQuadrantBits(board, quadrant);
+        int rotated = clockwise ? ROTATE_CLOCKWISE[bits] : ROTATE_COUNTER_CLOCKWISE[bits];
+        return (board & ~QUADRANT_MASKS[quadrant]) | spreadQuadrantBits(rotated, quadrant);
+    }
+
+    // סיבוב של 9 ביטים מקומיים של רביע לפי טבלת התמורה
+    public static int rotateQuadrantBits(int bits, boolean clockwise) {
+        return clockwise ? ROTATE_CLOCKWISE[bits] : ROTATE_COUNTER_CLOCKWISE[bits];
+    }
+
+    // חילוץ 9 הביטים של רביע לאינדקס מקומי (ביט r*3+c עבור שורה r ועמודה c ברביע)
+    public static int getQuadrantBits(long board, int quadrant) {
+        int offset = QUADRANT_OFFSETS[quadrant];
+        return (int) ((board >>> offset) & 7)
+                | (int) ((board >>> (offset + BOARD_SIZE)) & 7) << 3
+                | (int) ((board >>> (offset + 2 * BOARD_SIZE)) & 7) << 6;
+    }
+
+    // פריסת 9 ביטים מקומיים חזרה למיקומם בלוח
+    public static long spreadQuadrantBits(int bits, int quadrant) {
+        int offset = QUADRANT_OFFSETS[quadrant];
+        return ((long) (bits & 7) << offset)
+                | ((long) ((bits >>> 3) & 7) << (offset + BOARD_SIZE))
+                | ((long) ((bits >>> 6) & 7) << (offset + 2 * BOARD_SIZE));
+    }
+
+    public static long getQuadrantMask(int quadrant) {
+        return QUADRANT_MASKS[quadrant];
+    }
+
+    // חישוב מלא של מפתח Zobrist עבור מצב נתון
+    public static long computeHash(long black, long white, int sideToMove) {
+        long hash = (sideToMove == 1) ? SIDE_TO_MOVE_KEY : 0L;
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            hash ^= QUADRANT_ZOBRIST[0][quadrant][getQuadrantBits(black, quadrant)];
+            hash ^= QUADRANT_ZOBRIST[1][quadrant][getQuadrantBits(white, quadrant)];
         }
+        return hash;
+    }
 
-        // הסרת הכלים הקיימים ברביע
-        for (int r = 0; r < 3; r++) {
-            for (int c = 0; c < 3; c++) {
-                int position = (startRow + r) * BOARD_SIZE + (startCol + c);
-                long mask = ~(1L << position);
-                blackBoard &= mask;
-                whiteBoard &= mask;
+    private static long[][] createZobristKeys() {
+        long[][] keys = new long[2][BOARD_SIZE * BOARD_SIZE];
+        long state = ZOBRIST_SEED;
+        for (int player = 0; player < 2; player++) {
+            for (int position = 0; position < keys[player].length; position++) {
+                state += 0x9E3779B97F4A7C15L;
+                keys[player][position] = splitMix64(state);
             }
         }
+        return keys;
+    }
 
-        // הנחת הכלים בסיבוב
-        for (int r = 0; r < 3; r++) {
-            for (int c = 0; c < 3; c++) {
-                int newR, newC;
-
-                if (clockwise) {
-                    newR = c;
-                    newC = 2 - r;
-                } else {
-                    newR = 2 - c;
-                    newC = r;
+    private static long[][][] createQuadrantZobrist() {
+        long[][][] table = new long[2][4][1 << 9];
+        for (int player = 0; player < 2; player++) {
+            for (int quadrant = 0; quadrant < 4; quadrant++) {
+                for (int bits = 0; bits < (1 << 9); bits++) {
+                    long cells = spreadQuadrantBits(bits, quadrant);
+                    long hash = 0L;
+                    while (cells != 0) {
+                        hash ^= ZOBRIST_KEYS[player][Long.numberOfTrailingZeros(cells)];
+                        cells &= cells - 1;
+                    }
+                    table[player][quadrant][bits] = hash;
                 }
+            }
+        }
+        return table;
+    }
 
-                int piece = tempBoard[r][c];
-                if (piece != -1) {
-                    int position = (startRow + newR) * BOARD_SIZE + (startCol + newC);
-                    placePiece(position, piece);
+    // ערבול SplitMix64 - מחולל מפתחות דטרמיניסטי
+    private static long splitMix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // בניית טבלת תמורה לכל 512 המצבים האפשריים של רביע
+    private static short[] createRotationTable(boolean clockwise) {
+        short[] table = new short[1 << 9];
+        for (int bits = 0; bits < table.length; bits++) {
+            int rotated = 0;
+            for (int r = 0; r < 3; r++) {
+                for (int c = 0; c < 3; c++) {
+                    if ((bits & (1 << (r * 3 + c))) != 0) {
+                        int newR = clockwise ? c : 2 - c;
+                        int newC = clockwise ? 2 - r : r;
+                        rotated |= 1 << (newR * 3 + newC);
+                    }
                 }
             }
+            table[bits] = (short) rotated;
         }
+        return table;
     }
 
     //  בדיקה האם קיים רצף מנצח
     public boolean hasWinningLine(int player) {
-        long board = (player == 0) ? blackBoard : whiteBoard;
+        return hasWinningLine((player == 0) ? blackBoard : whiteBoard);
+    }
 
-        // בדיקת שורות
+    // בדיקת רצף מנצח על מספר ארוך בודד - 32 בדיקות AND מול טבלת המסכות
+    public static boolean hasWinningLine(long board) {
+        for (long mask : WINNING_MASKS) {
+            if ((board & mask) == mask) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // סיווג מצב הלוח במעבר יחיד על טבלת המסכות
+    public BoardStatus getStatus() {
+        return getStatus(blackBoard, whiteBoard);
+    }
+
+    public static BoardStatus getStatus(long black, long white) {
+        boolean blackWins = false;
+        boolean whiteWins = false;
+
+        for (long mask : WINNING_MASKS) {
+            if ((black & mask) == mask) {
+                blackWins = true;
+            } else if ((white & mask) == mask) {
+                whiteWins = true;
+            }
+            if (blackWins && whiteWins) {
+                return BoardStatus.BOTH_WIN;
+            }
+        }
+
+        if (blackWins) {
+            return BoardStatus.BLACK_WINS;
+        }
+        if (whiteWins) {
+            return BoardStatus.WHITE_WINS;
+        }
+        if (((black | white) & FULL_BOARD) == FULL_BOARD) {
+            return BoardStatus.DRAW;
+        }
+        return BoardStatus.IN_PROGRESS;
+    }
+
+    // גישה למסכת רצף לפי אינדקס: 0-11 שורות, 12-23 עמודות, 24-27 אלכסונים, 28-31 אלכסונים נגדיים
+    public static long getWinningMask(int index) {
+        return WINNING_MASKS[index];
+    }
+
+    // בניית טבלת כל הרצפים המנצחים (5 ברצף) על לוח 6x6
+    private static long[] createWinningMasks() {
+        long[] masks = new long[WINNING_LINE_COUNT];
+        int index = 0;
+
+        // שורות
         for (int row = 0; row < BOARD_SIZE; row++) {
             for (int col = 0; col <= BOARD_SIZE - WINNING_LENGTH; col++) {
-                boolean win = true;
-                for (int i = 0; i < WINNING_LENGTH; i++) {
-                    int pos = row * BOARD_SIZE + (col + i);
-                    if (((board >>> pos) & 1) == 0) {
-                        win = false;
-                        break;
-                    }
-                }
-                if (win) return true;
+                masks[index++] = lineMask(row, col, 0, 1);
             }
         }
 
-        // בדיקת עמודות
+        // עמודות
         for (int col = 0; col < BOARD_SIZE; col++) {
             for (int row = 0; row <= BOARD_SIZE - WINNING_LENGTH; row++) {
-                boolean win = true;
-                for (int i = 0; i < WINNING_LENGTH; i++) {
-                    int pos = (row + i) * BOARD_SIZE + col;
-                    if (((board >>> pos) & 1) == 0) {
-                        win = false;
-                        break;
-                    }
-                }
-                if (win) return true;
+                masks[index++] = lineMask(row, col, 1, 0);
             }
         }
 
-        // בדיקת אלכסונים (מימין לשמאל)
+        // אלכסונים (מימין לשמאל)
         for (int row = 0; row <= BOARD_SIZE - WINNING_LENGTH; row++) {
             for (int col = 0; col <= BOARD_SIZE - WINNING_LENGTH; col++) {
-                boolean win = true;
-                for (int i = 0; i < WINNING_LENGTH; i++) {
-                    int pos = (row + i) * BOARD_SIZE + (col + i);
-                    if (((board >>> pos) & 1) == 0) {
-                        win = false;
-                        break;
-                    }
-                }
-                if (win) return true;
+                masks[index++] = lineMask(row, col, 1, 1);
             }
         }
 
-        // בדיקת אלכסונים (משמאל לימין)
+        // אלכסונים (משמאל לימין)
         for (int row = 0; row <= BOARD_SIZE - WINNING_LENGTH; row++) {
             for (int col = WINNING_LENGTH - 1; col < BOARD_SIZE; col++) {
-                boolean win = true;
-                for (int i = 0; i < WINNING_LENGTH; i++) {
-                    int pos = (row + i) * BOARD_SIZE + (col - i);
-                    if (((board >>> pos) & 1) == 0) {
-                        win = false;
-                        break;
-                    }
-                }
-                if (win) return true;
+                masks[index++] = lineMask(row, col, 1, -1);
             }
         }
 
-        return false;
+        return masks;
+    }
+
+    private static long lineMask(int row, int col, int rowDelta, int colDelta) {
+        long mask = 0L;
+        for (int i = 0; i < WINNING_LENGTH; i++) {
+            mask |= 1L << ((row + i * rowDelta) * BOARD_SIZE + (col + i * colDelta));
+        }
+        return mask;
     }
 
     // בדיקה אם הלוח מלא
     public boolean isBoardFull() {
-        return (~(blackBoard | whiteBoard) & ((1L << 36) - 1)) == 0;
+        return (~(blackBoard | whiteBoard) & FULL_BOARD) == 0;
     }
 }
@@ -0,0 +1,68 @@
+package com.example.rongame.model;
+
+/**
+ * מצב לוח קפוא - שני מספרים ארוכים, אחד לכל שחקן
+ * withPiece ו-withRotation מחזירים מצב חדש ואינם משנים את הקיים,
+ * כך שהסתעפות ממצב עולה שתי העתקות של long בלבד
+ */
+public record BoardSnapshot(long black, long white) {
+
+    public static final BoardSnapshot EMPTY = new BoardSnapshot(0L, 0L);
+
+    // מצב חדש עם כלי נוסף במיקום מסוים
+    public BoardSnapshot withPiece(int position, int player) {
+        long mask = 1L << position;
+        return (player == 0)
+                ? new BoardSnapshot(black | mask, white)
+                : new BoardSnapshot(black, white | mask);
+    }
+
+    // מצב חדש אחרי סיבוב רביע
+    public BoardSnapshot withRotation(int quadrant, boolean clockwise) {
+        return new BoardSnapshot(
+                BitBoardRepresentation.rotateQuadrant(black, quadrant, clockwise),
+                BitBoardRepresentation.rotateQuadrant(white, quadrant, clockwise));
+    }
+
+    public boolean isPositionEmpty(int position) {
+        return ((black | white) & (1L << position)) == 0;
+    }
+
+    // קבלת המצב של משבצת מסוימת (ריק -1, שחור 0, לבן 1)
+    public int getPieceAt(int row, int col) {
+        long mask = 1L << (row * 6 + col);
+        if ((black & mask) != 0) {
+            return 0;
+        } else if ((white & mask) != 0) {
+            return 1;
+        }
+        return -1;
+    }
+
+    public long getEmptyMask() {
+        return ~(black | white) & BitBoardRepresentation.FULL_BOARD;
+    }
+
+    public boolean hasWinningLine(int player) {
+        return BitBoardRepresentation.hasWinningLine(player == 0 ? black : white);
+    }
+
+    // הנציג הקנוני של מחלקת הסימטריה והטרנספורמציה שהובילה אליו
+    public BoardSymmetry.Canonical canonical() {
+        return BoardSymmetry.canonical(black, white);
+    }
+
+    // המצב אחרי טרנספורמציית סימטריה
+    public BoardSnapshot transformed(int transform) {
+        return new BoardSnapshot(BoardSymmetry.transform(black, transform), BoardSymmetry.transform(white, transform));
+    }
+
+    // מפתח Zobrist של המצב עבור השחקן שתורו
+    public long zobristHash(int sideToMove) {
+        return BitBoardRepresentation.computeHash(black, white, sideToMove);
+    }
+
+    public BitBoardRepresentation.BoardStatus getStatus() {
+        return BitBoardRepresentation.getStatus(black, white);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.rongame.model;
+
+/**
+ * סימטריות הלוח - 8 הטרנספורמציות (4 סיבובים של הלוח כולו, עם או בלי שיקוף)
+ * ששומרות על מבנה הרביעים
+ * טרנספורמציה t: אם t >= 4 משקפים קודם אופקית, ואחר כך מסובבים (t % 4) פעמים 90 מעלות עם השעון
+ */
+public final class BoardSymmetry {
+
+    public static final int IDENTITY = 0;
+    public static final int TRANSFORM_COUNT = 8;
+
+    private static final int BOARD_SIZE = 6;
+    private static final int CELLS = BOARD_SIZE * BOARD_SIZE;
+
+    // מיפוי משבצת למשבצת לכל טרנספורמציה
+    private static final int[][] POSITION_MAP = createPositionMap();
+
+    // טבלאות לפי שורה - לכל טרנספורמציה, שורה ו-64 מצבי השורה: מסכת הביטים אחרי הטרנספורמציה
+    private static final long[][][] ROW_TABLES = createRowTables();
+
+    // הטרנספורמציה ההפוכה לכל טרנספורמציה
+    private static final int[] INVERSE = createInverse();
+
+    // תוצאת הקנוניזציה: הלוח המינימלי במחלקת הסימטריה והטרנספורמציה שהובילה אליו
+    public record Canonical(long black, long white, int transform) {
+
+        public BoardSnapshot snapshot() {
+            return new BoardSnapshot(black, white);
+        }
+    }
+
+    private BoardSymmetry() {
+    }
+
+    // החלת טרנספורמציה על מספר ארוך בודד - שש בדיקות בטבלה
+    public static long transform(long bits, int transform) {
+        long[][] tables = ROW_TABLES[transform];
+        return tables[0][(int) (bits & 63)]
+                | tables[1][(int) ((bits >>> 6) & 63)]
+                | tables[2][(int) ((bits >>> 12) & 63)]
+                | tables[3][(int) ((bits >>> 18) & 63)]
+                | tables[4][(int) ((bits >>> 24) & 63)]
+                | tables[5][(int) ((bits >>> 30) & 63)];
+    }
+
+    // הטרנספורמציה ההפוכה
+    public static int inverse(int transform) {
+        return INVERSE[transform];
+    }
+
+    public static int transformPosition(int position, int transform) {
+        return POSITION_MAP[transform][position];
+    }
+
+    // הרביע שאליו עובר רביע נתון
+    public static int transformQuadrant(int quadrant, int transform) {
+        int center = ((quadrant / 2) * 3 + 1) * BOARD_SIZE + (quadrant % 2) * 3 + 1;
+        int mapped = POSITION_MAP[transform][center];
+        return ((mapped / BOARD_SIZE) / 3) * 2 + (mapped % BOARD_SIZE) / 3;
+    }
+
+    // כיוון הסיבוב מתהפך בטרנספורמציות עם שיקוף
+    public static int transformDirection(int direction, int transform) {
+        return (transform >= 4) ? 1 - direction : direction;
+    }
+
+    // הטרנספורמציה שמביאה את המצב לנציג המינימלי של מחלקת הסימטריה שלו
+    public static int canonicalTransform(long black, long white) {
+        int best = IDENTITY;
+        long bestBlack = black;
+        long bestWhite = white;
+
+        for (int t = 1; t < TRANSFORM_COUNT; t++) {
+            long b = transform(black, t);
+            if (b > bestBlack) {
+                continue;
+            }
+            long w = transform(white, t);
+            if (b < bestBlack || w < bestWhite) {
+                best = t;
+                bestBlack = b;
+                bestWhite = w;
+            }
+        }
+
+        return best;
+    }
+
+    public static Canonical canonical(long black, long white) {
+        int t = canonicalTransform(black, white);
+        return new Canonical(transform(black, t), transform(white, t), t);
+    }
+
+    // מפתח Zobrist של הנציג הקנוני - זהה לכל 8 המצבים הסימטריים
+    public static long canonicalHash(long black, long white, int sideToMove) {
+        int t = canonicalTransform(black, white);
+        return BitBoardRepresentation.computeHash(transform(black, t), transform(white, t), sideToMove);
+    }
+
+    // ========================
+    // בניית הטבלאות
+    // ========================
+
+    private static int[][] createPositionMap() {
+        int[][] map = new int[TRANSFORM_COUNT][CELLS];
+        for (int t = 0; t < TRANSFORM_COUNT; t++) {
+            for (int position = 0; position < CELLS; position++) {
+                int row = position / BOARD_SIZE;
+                int col = position % BOARD_SIZE;
+
+                if (t >= 4) {
+                    col = BOARD_SIZE - 1 - col;
+                }
+                for (int k = 0; k < t % 4; k++) {
+                    int newRow = col;
+                    col = BOARD_SIZE - 1 - row;
+                    row = newRow;
+                }
+
+                map[t][position] = row * BOARD_SIZE + col;
+            }
+        }
+        return map;
+    }
+
+    private static long[][][] createRowTables() {
+        long[][][] tables = new long[TRANSFORM_COUNT][BOARD_SIZE][1 << BOARD_SIZE];
+        for (int t = 0; t < TRANSFORM_COUNT; t++) {
+            for (int row = 0; row < BOARD_SIZE; row++) {
+                for (int bits = 0; bits < (1 << BOARD_SIZE); bits++) {
+                    long mapped = 0L;
+                    for (int col = 0; col < BOARD_SIZE; col++) {
+                        if ((bits & (1 << col)) != 0) {
+                            mapped |= 1L << POSITION_MAP[t][row * BOARD_SIZE + col];
+                        }
+                    }
+                    tables[t][row][bits] = mapped;
+                }
+            }
+        }
+        return tables;
+    }
+
+    private static int[] createInverse() {
+        int[] inverse = new int[TRANSFORM_COUNT];
+        for (int t = 0; t < TRANSFORM_COUNT; t++) {
+            for (int u = 0; u < TRANSFORM_COUNT; u++) {
+                boolean identity = true;
+                for (int position = 0; position < CELLS && identity; position++) {
+                    identity = POSITION_MAP[u][POSITION_MAP[t][position]] == position;
+                }
+                if (identity) {
+                    inverse[t] = u;
+                    break;
+                }
+            }
+        }
+        return inverse;
+    }
+}
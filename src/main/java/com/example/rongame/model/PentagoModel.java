@@ -50,6 +50,7 @@ public class PentagoModel extends Observable {
         // החלפת שחקן
         if (gameState == GameState.IN_PROGRESS) {
             currentPlayer = 1 - currentPlayer;
+            board.setSideToMove(currentPlayer);
         }
 
         setChanged();
@@ -58,12 +59,19 @@ public class PentagoModel extends Observable {
 
     //  בדיקת מצב המשחק (ניצחון או תיקו)
     private void checkGameState() {
-        if (board.hasWinningLine(0)) {
-            gameState = GameState.BLACK_WINS;
-        } else if (board.hasWinningLine(1)) {
-            gameState = GameState.WHITE_WINS;
-        } else if (board.isBoardFull()) {
-            gameState = GameState.DRAW;
+        switch (board.getStatus()) {
+            case BLACK_WINS:
+            case BOTH_WIN: // כמו קודם - כשלשניהם יש רצף, השחור מנצח
+                gameState = GameState.BLACK_WINS;
+                break;
+            case WHITE_WINS:
+                gameState = GameState.WHITE_WINS;
+                break;
+            case DRAW:
+                gameState = GameState.DRAW;
+                break;
+            default:
+                break;
         }
     }
 
@@ -0,0 +1,220 @@
+package com.example.rongame.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * קידוד דחוס של מצבי משחק וכתיבה/קריאה שלהם בזרם דרך ByteBuffer
+ *
+ * קידוד דחוס (8 בתים): דירוג בבסיס 3 של 36 המשבצות (0 ריק, 1 שחור, 2 לבן),
+ * 3^36 דורש 58 ביטים (ביטים 0-57), ביט 58 - השחקן שתורו, ביט 59 - שלב (הנחה/סיבוב)
+ *
+ * קידוד רחב (16 בתים): שני המספרים הארוכים כפי שהם, עם השחקן והשלב בביטים 36-37 של הראשון -
+ * גדול פי שניים אבל ללא חילוק בפענוח
+ */
+public class PositionCodec {
+
+    public static final int PHASE_PLACE = 0;
+    public static final int PHASE_ROTATE = 1;
+
+    public static final int PACKED_BYTES = Long.BYTES;
+    public static final int WIDE_BYTES = 2 * Long.BYTES;
+
+    private static final int BOARD_SIZE = 6;
+    private static final int ROW_STATES = 729; // 3^6
+    private static final int RANK_BITS = 58;
+    private static final long RANK_MASK = (1L << RANK_BITS) - 1;
+    private static final int SIDE_BIT = 58;
+    private static final int PHASE_BIT = 59;
+    private static final long ROW_MASK = (1L << BOARD_SIZE) - 1;
+
+    // דירוג שורה: אינדקס (לבן << 6 | שחור) -> ספרה בבסיס 729
+    private static final short[] ROW_RANK = createRowRank();
+
+    // פענוח שורה: ספרה בבסיס 729 -> ביטי השחור והלבן בשורה
+    private static final byte[] ROW_BLACK = new byte[ROW_STATES];
+    private static final byte[] ROW_WHITE = new byte[ROW_STATES];
+
+    static {
+        for (int digit = 0; digit < ROW_STATES; digit++) {
+            int value = digit;
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                int cell = value % 3;
+                value /= 3;
+                if (cell == 1) {
+                    ROW_BLACK[digit] |= (byte) (1 << col);
+                } else if (cell == 2) {
+                    ROW_WHITE[digit] |= (byte) (1 << col);
+                }
+            }
+        }
+    }
+
+    // חוצץ לשימוש חוזר בקריאה/כתיבה לערוץ
+    private final ByteBuffer buffer;
+
+    /**
+     * @param bufferPositions מספר המצבים שנכנסים בחוצץ הפנימי
+     */
+    public PositionCodec(int bufferPositions) {
+        this.buffer = ByteBuffer.allocateDirect(bufferPositions * PACKED_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    // ========================
+    // קידוד דחוס
+    // ========================
+
+    public static long pack(long black, long white, int sideToMove, int phase) {
+        long rank = 0L;
+        long multiplier = 1L;
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            int shift = row * BOARD_SIZE;
+            int index = (int) (((white >>> shift) & ROW_MASK) << BOARD_SIZE | ((black >>> shift) & ROW_MASK));
+            rank += ROW_RANK[index] * multiplier;
+            multiplier *= ROW_STATES;
+        }
+        return rank | ((long) sideToMove << SIDE_BIT) | ((long) phase << PHASE_BIT);
+    }
+
+    public static long pack(BitBoardRepresentation board, int phase) {
+        return pack(board.getBlackBoard(), board.getWhiteBoard(), board.getSideToMove(), phase);
+    }
+
+    /**
+     * פענוח הלוח מקידוד דחוס לתוך מערך של הקורא
+     * @param out out[0] - שחור, out[1] - לבן
+     */
+    public static void unpack(long packed, long[] out) {
+        long rank = packed & RANK_MASK;
+        long black = 0L;
+        long white = 0L;
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            int digit = (int) (rank % ROW_STATES);
+            rank /= ROW_STATES;
+            black |= (long) (ROW_BLACK[digit] & 0xFF) << (row * BOARD_SIZE);
+            white |= (long) (ROW_WHITE[digit] & 0xFF) << (row * BOARD_SIZE);
+        }
+        out[0] = black;
+        out[1] = white;
+    }
+
+    public static BoardSnapshot unpackSnapshot(long packed) {
+        long[] boards = new long[2];
+        unpack(packed, boards);
+        return new BoardSnapshot(boards[0], boards[1]);
+    }
+
+    public static int unpackSideToMove(long packed) {
+        return (int) ((packed >>> SIDE_BIT) & 1);
+    }
+
+    public static int unpackPhase(long packed) {
+        return (int) ((packed >>> PHASE_BIT) & 1);
+    }
+
+    // ========================
+    // קריאה וכתיבה ל-ByteBuffer
+    // ========================
+
+    public static void writePacked(ByteBuffer target, long black, long white, int sideToMove, int phase) {
+        target.putLong(pack(black, white, sideToMove, phase));
+    }
+
+    public static void writeAll(ByteBuffer target, long[] packed, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            target.putLong(packed[i]);
+        }
+    }
+
+    // קריאת עד length מצבים דחוסים; מחזיר את מספר המצבים שנקראו
+    public static int readAll(ByteBuffer source, long[] packed, int offset, int length) {
+        int count = Math.min(length, source.remaining() / PACKED_BYTES);
+        for (int i = offset; i < offset + count; i++) {
+            packed[i] = source.getLong();
+        }
+        return count;
+    }
+
+    public static void writeWide(ByteBuffer target, long black, long white, int sideToMove, int phase) {
+        target.putLong(black | ((long) sideToMove << 36) | ((long) phase << 37));
+        target.putLong(white);
+    }
+
+    /**
+     * קריאת מצב בקידוד רחב לתוך מערך של הקורא
+     * @param out out[0] - שחור, out[1] - לבן
+     * @return השחקן שתורו בביט 0 והשלב בביט 1
+     */
+    public static int readWide(ByteBuffer source, long[] out) {
+        long first = source.getLong();
+        out[0] = first & BitBoardRepresentation.FULL_BOARD;
+        out[1] = source.getLong();
+        return (int) (first >>> 36) & 3;
+    }
+
+    // ========================
+    // זרמים דרך ערוצי NIO
+    // ========================
+
+    // כתיבת מערך מצבים דחוסים לערוץ דרך החוצץ הפנימי
+    public void write(WritableByteChannel channel, long[] packed, int offset, int length) throws IOException {
+        int capacity = buffer.capacity() / PACKED_BYTES;
+        int written = 0;
+        while (written < length) {
+            int chunk = Math.min(capacity, length - written);
+            buffer.clear();
+            writeAll(buffer, packed, offset + written, chunk);
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            written += chunk;
+        }
+    }
+
+    /**
+     * קריאת עד length מצבים דחוסים מהערוץ
+     * @return מספר המצבים שנקראו (0 בסוף הזרם)
+     */
+    public int read(ReadableByteChannel channel, long[] packed, int offset, int length) throws IOException {
+        int capacity = buffer.capacity() / PACKED_BYTES;
+        int read = 0;
+        boolean endOfStream = false;
+        while (read < length && !endOfStream) {
+            buffer.clear();
+            buffer.limit(Math.min(capacity, length - read) * PACKED_BYTES);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    endOfStream = true; // שאריות של מצב חלקי בסוף הזרם נזנחות
+                    break;
+                }
+            }
+            buffer.flip();
+            read += readAll(buffer, packed, offset + read, length - read);
+        }
+        return read;
+    }
+
+    private static short[] createRowRank() {
+        short[] table = new short[1 << (2 * BOARD_SIZE)];
+        for (int digit = 0; digit < ROW_STATES; digit++) {
+            int black = 0;
+            int white = 0;
+            int value = digit;
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                int cell = value % 3;
+                value /= 3;
+                if (cell == 1) {
+                    black |= 1 << col;
+                } else if (cell == 2) {
+                    white |= 1 << col;
+                }
+            }
+            table[(white << BOARD_SIZE) | black] = (short) digit;
+        }
+        return table;
+    }
+}
@@ -4,7 +4,9 @@ import java.util.Observable;
 import java.util.Observer;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import javafx.animation.PauseTransition;
 import javafx.application.Platform;
+import javafx.util.Duration;
 
 import com.example.rongame.ai.PentagoAI;
 import com.example.rongame.model.PentagoModel;
@@ -16,6 +18,9 @@ import com.example.rongame.view.PentagoView.GamePhase;
 
 public class PentagoPresenter implements Observer {
 
+    // ההשהיה בין הנחת הכלי של ה-AI לסיבוב שלו, כדי ששלב הסיבוב ייראה על הלוח
+    private static final double AI_ROTATION_PAUSE_MS = 1200;
+
     private PentagoModel model;
     private PentagoView view;
     private PentagoAI ai;
@@ -47,6 +52,8 @@ public class PentagoPresenter implements Observer {
         // במידה ו-AI מופעל, צריך לבדוק אם זה תורו להתחיל
         if (isAIEnabled && model.getCurrentPlayer() == 1) {
             makeAIMove();
+        } else {
+            startPondering();
         }
     }
 
@@ -77,9 +84,12 @@ public class PentagoPresenter implements Observer {
         // מאזין למשחק חדש
         view.getNewGameButton().setOnAction(e -> {
             if (!isAIThinking) {
+                stopPondering();
                 model.resetGame();
                 if (isAIEnabled && model.getCurrentPlayer() == 1) {
                     makeAIMove();
+                } else {
+                    startPondering();
                 }
             }
         });
@@ -117,6 +127,8 @@ public class PentagoPresenter implements Observer {
             return;
         }
 
+        // המהלך של השחקן הושלם - עצירה מיידית של החשיבה ברקע לפני שה-AI מתחיל
+        stopPondering();
         model.rotateQuadrant(quadrant, clockwise);
 
         // לאחר סיבוב הרביע, אם המשחק במצב AI וזה תור ה-AI, מפעילים אותו
@@ -233,16 +245,19 @@ public class PentagoPresenter implements Observer {
         // הרצת AI בתהליך נפרד
         aiExecutor.submit(() -> {
             try {
-                // המתנה קצרה כדי שלמשתמש תהיה תחושה שהמחשב חושב
-                Thread.sleep(800);
-
                 // עדכון המודל באובייקט ה-AI (במידה והמודל השתנה)
                 ai.setModel(model);
 
-                // קבלת מהלך הנחת כלי מה-AI
-                int[] move = ai.makeMove();
+                // קבלת מהלך מלא (הנחה + סיבוב) מה-AI - זמן החשיבה של ה-AI מחליף את ההמתנה המלאכותית
+                int[] move = ai.makeFullMove();
+                if (move == null) {
+                    isAIThinking = false; // אין מהלך חוקי - אין מה לשלוח ללוח
+                    return;
+                }
                 final int aiRow = move[0];
                 final int aiCol = move[1];
+                final int quadrant = move[2];
+                final boolean clockwise = move[3] == 1;
 
                 // הנחת הכלי בשרשור UI
                 Platform.runLater(() -> {
@@ -255,24 +270,21 @@ public class PentagoPresenter implements Observer {
 
                     // וידוא שכפתורי הסיבוב נשארים מוסתרים
                     view.getBoardView().hideRotationButtons();
-                });
 
-                // המתנה נוספת לפני הסיבוב
-                Thread.sleep(1200);
-
-                // קבלת מהלך סיבוב מה-AI
-                int[] rotation = ai.makeRotation();
-                final int quadrant = rotation[0];
-                final boolean clockwise = rotation[1] == 1;
-
-                // ביצוע הסיבוב בשרשור UI
-                Platform.runLater(() -> {
-                    // הפעלת אנימציה של סיבוב בלי להציג את הכפתורים
-                    view.getBoardView().animateRotationWithoutButtons(quadrant, clockwise, () -> {
-                        // ביצוע הסיבוב במודל אחרי האנימציה
-                        model.rotateQuadrant(quadrant, clockwise);
-                        isAIThinking = false;
+                    // ביצוע הסיבוב אחרי השהיה קצרה, כדי שהמשתמש יראה את ההנחה לפני הסיבוב
+                    PauseTransition pause = new PauseTransition(Duration.millis(AI_ROTATION_PAUSE_MS));
+                    pause.setOnFinished(event -> {
+                        // הפעלת אנימציה של סיבוב בלי להציג את הכפתורים
+                        view.getBoardView().animateRotationWithoutButtons(quadrant, clockwise, () -> {
+                            // ביצוע הסיבוב במודל אחרי האנימציה
+                            model.rotateQuadrant(quadrant, clockwise);
+                            isAIThinking = false;
+
+                            // תור השחקן - ה-AI ממשיך לחשוב ברקע
+                            startPondering();
+                        });
                     });
+                    pause.play();
                 });
 
             } catch (Exception e) {
@@ -282,10 +294,32 @@ public class PentagoPresenter implements Observer {
         });
     }
 
+    // חשיבה של ה-AI בזמן התור של השחקן, על אותו executor (ולכן תמיד לפני המהלך הבא של ה-AI)
+    private void startPondering() {
+        if (!isAIEnabled || model.getGameState() != GameState.IN_PROGRESS || model.getCurrentPlayer() != 0) {
+            return;
+        }
+        ai.setModel(model);
+        Runnable ponderTask = ai.createPonderTask();
+        if (ponderTask != null) {
+            aiExecutor.submit(ponderTask);
+        }
+    }
+
+    private void stopPondering() {
+        if (isAIEnabled) {
+            ai.stopPondering();
+        }
+    }
+
     // עוצר את ה - AI כשחוזרים לMENU
     public void stopAI() {
+        stopPondering();
         if (aiExecutor != null) {
             aiExecutor.shutdownNow();
         }
+        if (ai != null) {
+            ai.shutdown();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.example.rongame.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.rongame.model.BitBoardRepresentation;
+import com.example.rongame.model.BoardSnapshot;
+import org.junit.jupiter.api.Test;
+
+// הפותרים והחיפוש המלא חייבים להסכים על ערך של מצבי סיום קבועים (ערכים מחיפוש ממצה)
+class SolverAgreementTest {
+
+    // x - שחור, o - לבן, שורה אחרי שורה
+    private static final String WHITE_WINS_7 = "ooo.o.xx.xx.oooxoxxxooxxxxo.xoxx.o.o";
+    private static final String WHITE_LOSES_5 = "oxoxox.xox.xox.oxoxoxoxoxxxoxoo.x.oo";
+    private static final String BLACK_DRAWS_4 = "xx.oxxooox.oxx.oooxoxxxooxo.oxxxooxo";
+    // בעץ יש מהלכים שסוגרים רצף לשני השחקנים - שחור מנצח בהם
+    private static final String BLACK_WINS_6 = "xoxoxoxx.ooxx.oooxoxx.x.oooxxoo..xox";
+
+    @Test
+    void sideToMoveWins() {
+        assertAgreement(WHITE_WINS_7, 1, EndgameSolver.Outcome.WIN);
+    }
+
+    @Test
+    void sideToMoveLoses() {
+        assertAgreement(WHITE_LOSES_5, 1, EndgameSolver.Outcome.LOSS);
+    }
+
+    @Test
+    void draw() {
+        assertAgreement(BLACK_DRAWS_4, 0, EndgameSolver.Outcome.DRAW);
+    }
+
+    @Test
+    void blackWinsDoubleLine() {
+        assertAgreement(BLACK_WINS_6, 0, EndgameSolver.Outcome.WIN);
+    }
+
+    private static void assertAgreement(String cells, int side, EndgameSolver.Outcome expected) {
+        BitBoardRepresentation board = parse(cells, side);
+        int empties = Long.bitCount(board.getEmptyMask());
+
+        EndgameSolver.Result solved = new EndgameSolver().solve(board.copy(), side, 0);
+        assertEquals(expected, solved.outcome());
+
+        // חיפוש עד סוף המשחק
+        SearchResult searched = new AlphaBetaSearch().search(board.copy(), side, empties);
+        assertEquals(expected, outcomeOf(searched.score()));
+
+        // df-pn מוכיח ניצחון רק לצד המנצח, פעם כתוקף ופעם כמגן
+        DfpnSolver dfpn = new DfpnSolver();
+        DfpnSolver.Outcome sideAttacks = dfpn.solve(board.copy(), side, side, 0).outcome();
+        dfpn.clear();
+        DfpnSolver.Outcome opponentAttacks = dfpn.solve(board.copy(), side, 1 - side, 0).outcome();
+        assertEquals(expected == EndgameSolver.Outcome.WIN
+                ? DfpnSolver.Outcome.PROVEN : DfpnSolver.Outcome.DISPROVEN, sideAttacks);
+        assertEquals(expected == EndgameSolver.Outcome.LOSS
+                ? DfpnSolver.Outcome.PROVEN : DfpnSolver.Outcome.DISPROVEN, opponentAttacks);
+    }
+
+    private static EndgameSolver.Outcome outcomeOf(int score) {
+        if (score >= AlphaBetaSearch.WIN_THRESHOLD) {
+            return EndgameSolver.Outcome.WIN;
+        }
+        if (score <= -AlphaBetaSearch.WIN_THRESHOLD) {
+            return EndgameSolver.Outcome.LOSS;
+        }
+        return EndgameSolver.Outcome.DRAW;
+    }
+
+    private static BitBoardRepresentation parse(String cells, int side) {
+        long black = 0L;
+        long white = 0L;
+        for (int i = 0; i < cells.length(); i++) {
+            if (cells.charAt(i) == 'x') {
+                black |= 1L << i;
+            } else if (cells.charAt(i) == 'o') {
+                white |= 1L << i;
+            }
+        }
+        BitBoardRepresentation board = new BitBoardRepresentation(new BoardSnapshot(black, white));
+        board.setSideToMove(side);
+        return board;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.rongame.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+class TranspositionTableTest {
+
+    private static final int[] SCORES = {
+            0, 1, -1, 12_345, -12_345,
+            AlphaBetaSearch.WIN_SCORE - 7, -(AlphaBetaSearch.WIN_SCORE - 7),
+            AlphaBetaSearch.INFINITY, -AlphaBetaSearch.INFINITY
+    };
+
+    private static final int[] MOVES = {SearchResult.NO_MOVE, 0, MoveGenerator.encode(35, 3, 1)};
+
+    @Test
+    void storedEntryUnpacksToSameFields() {
+        TranspositionTable table = new TranspositionTable(1);
+        long hash = 0x1234_5678_9ABC_DEF0L;
+        int[] bounds = {TranspositionTable.EXACT, TranspositionTable.LOWER_BOUND, TranspositionTable.UPPER_BOUND};
+
+        for (int score : SCORES) {
+            for (int move : MOVES) {
+                for (int bound : bounds) {
+                    for (int depth : new int[] {0, 1, 36, 255}) {
+                        table.clear();
+                        table.store(hash, move, score, depth, bound);
+                        long entry = table.probe(hash);
+
+                        assertNotEquals(TranspositionTable.NO_ENTRY, entry);
+                        assertEquals(move, TranspositionTable.getMove(entry));
+                        assertEquals(score, TranspositionTable.getScore(entry));
+                        assertEquals(depth, TranspositionTable.getDepth(entry));
+                        assertEquals(bound, TranspositionTable.getBound(entry));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void storeWithoutMoveKeepsPreviousMove() {
+        TranspositionTable table = new TranspositionTable(1);
+        long hash = 0x0F0F_0F0F_1234_5678L;
+        int move = MoveGenerator.encode(14, 2, 0);
+
+        table.store(hash, move, 50, 3, TranspositionTable.EXACT);
+        table.store(hash, SearchResult.NO_MOVE, -40, 5, TranspositionTable.UPPER_BOUND);
+        long entry = table.probe(hash);
+
+        assertEquals(move, TranspositionTable.getMove(entry));
+        assertEquals(-40, TranspositionTable.getScore(entry));
+        assertEquals(5, TranspositionTable.getDepth(entry));
+    }
+
+    @Test
+    void missingPositionIsNotFound() {
+        TranspositionTable table = new TranspositionTable(1);
+        long hash = 0x7777_0000_1111_2222L;
+        table.store(hash, 0, 10, 1, TranspositionTable.EXACT);
+
+        assertEquals(TranspositionTable.NO_ENTRY, table.probe(hash ^ 1));
+    }
+}
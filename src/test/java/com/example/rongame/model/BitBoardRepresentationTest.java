@@ -0,0 +1,72 @@
+package com.example.rongame.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class BitBoardRepresentationTest {
+
+    @Test
+    void incrementalHashMatchesFullComputation() {
+        Random random = new Random(1);
+        for (int game = 0; game < 200; game++) {
+            BitBoardRepresentation board = new BitBoardRepresentation();
+            for (int move = 0; move < 36; move++) {
+                board.doMove(TestPositions.randomEmptyCell(random, board.getEmptyMask()),
+                        random.nextInt(4), random.nextInt(2));
+                assertEquals(BitBoardRepresentation.computeHash(
+                                board.getBlackBoard(), board.getWhiteBoard(), board.getSideToMove()),
+                        board.getZobristHash());
+            }
+        }
+    }
+
+    @Test
+    void undoRestoresEveryPreviousState() {
+        Random random = new Random(2);
+        for (int game = 0; game < 200; game++) {
+            BitBoardRepresentation board = new BitBoardRepresentation();
+            long[] black = new long[37];
+            long[] white = new long[37];
+            long[] hash = new long[37];
+            int[] side = new int[37];
+
+            for (int move = 0; move < 36; move++) {
+                black[move] = board.getBlackBoard();
+                white[move] = board.getWhiteBoard();
+                hash[move] = board.getZobristHash();
+                side[move] = board.getSideToMove();
+                board.doMove(TestPositions.randomEmptyCell(random, board.getEmptyMask()),
+                        random.nextInt(4), random.nextInt(2));
+            }
+
+            for (int move = 35; move >= 0; move--) {
+                board.undoMove();
+                assertEquals(move, board.getUndoDepth());
+                assertEquals(black[move], board.getBlackBoard());
+                assertEquals(white[move], board.getWhiteBoard());
+                assertEquals(hash[move], board.getZobristHash());
+                assertEquals(side[move], board.getSideToMove());
+            }
+        }
+    }
+
+    @Test
+    void undoWithoutMovesThrows() {
+        assertThrows(IllegalStateException.class, () -> new BitBoardRepresentation().undoMove());
+    }
+
+    @Test
+    void rotationKeepsHashInSync() {
+        Random random = new Random(3);
+        BitBoardRepresentation board = TestPositions.randomBoard(random, 20);
+        for (int i = 0; i < 100; i++) {
+            board.rotateQuadrant(random.nextInt(4), random.nextBoolean());
+            assertEquals(BitBoardRepresentation.computeHash(
+                            board.getBlackBoard(), board.getWhiteBoard(), board.getSideToMove()),
+                    board.getZobristHash());
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.rongame.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class BoardSymmetryTest {
+
+    @Test
+    void inverseUndoesTransform() {
+        Random random = new Random(7);
+        for (int i = 0; i < 1000; i++) {
+            long bits = random.nextLong() & BitBoardRepresentation.FULL_BOARD;
+            for (int t = 0; t < BoardSymmetry.TRANSFORM_COUNT; t++) {
+                assertEquals(bits, BoardSymmetry.transform(BoardSymmetry.transform(bits, t), BoardSymmetry.inverse(t)));
+            }
+        }
+    }
+
+    @Test
+    void transformMatchesPositionMap() {
+        for (int t = 0; t < BoardSymmetry.TRANSFORM_COUNT; t++) {
+            for (int position = 0; position < 36; position++) {
+                assertEquals(1L << BoardSymmetry.transformPosition(position, t),
+                        BoardSymmetry.transform(1L << position, t));
+            }
+        }
+    }
+
+    @Test
+    void canonicalIsSharedBySymmetricPositions() {
+        Random random = new Random(8);
+        for (int i = 0; i < 2000; i++) {
+            BitBoardRepresentation board = TestPositions.randomBoard(random, random.nextInt(37));
+            long black = board.getBlackBoard();
+            long white = board.getWhiteBoard();
+            BoardSymmetry.Canonical expected = BoardSymmetry.canonical(black, white);
+            long expectedHash = BoardSymmetry.canonicalHash(black, white, board.getSideToMove());
+
+            for (int t = 0; t < BoardSymmetry.TRANSFORM_COUNT; t++) {
+                long b = BoardSymmetry.transform(black, t);
+                long w = BoardSymmetry.transform(white, t);
+                BoardSymmetry.Canonical canonical = BoardSymmetry.canonical(b, w);
+                assertEquals(expected.black(), canonical.black());
+                assertEquals(expected.white(), canonical.white());
+                assertEquals(expectedHash, BoardSymmetry.canonicalHash(b, w, board.getSideToMove()));
+            }
+        }
+    }
+
+    @Test
+    void rotatingTransformedBoardMatchesTransformedRotation() {
+        // סיבוב רביע ואז טרנספורמציה זהה לטרנספורמציה ואז סיבוב הרביע המתאים בכיוון המתאים
+        Random random = new Random(9);
+        for (int i = 0; i < 1000; i++) {
+            long bits = random.nextLong() & BitBoardRepresentation.FULL_BOARD;
+            int quadrant = random.nextInt(4);
+            int direction = random.nextInt(2);
+            for (int t = 0; t < BoardSymmetry.TRANSFORM_COUNT; t++) {
+                long rotatedFirst = BoardSymmetry.transform(
+                        BitBoardRepresentation.rotateQuadrant(bits, quadrant, direction == 1), t);
+                long transformedFirst = BitBoardRepresentation.rotateQuadrant(BoardSymmetry.transform(bits, t),
+                        BoardSymmetry.transformQuadrant(quadrant, t),
+                        BoardSymmetry.transformDirection(direction, t) == 1);
+                assertEquals(rotatedFirst, transformedFirst);
+            }
+        }
+    }
+}
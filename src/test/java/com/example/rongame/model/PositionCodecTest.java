@@ -0,0 +1,91 @@
+package com.example.rongame.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class PositionCodecTest {
+
+    @Test
+    void packedRoundTrip() {
+        Random random = new Random(4);
+        long[] out = new long[2];
+        for (int i = 0; i < 10_000; i++) {
+            BitBoardRepresentation board = TestPositions.randomBoard(random, random.nextInt(37));
+            int phase = random.nextInt(2);
+            long packed = PositionCodec.pack(board, phase);
+
+            PositionCodec.unpack(packed, out);
+            assertEquals(board.getBlackBoard(), out[0]);
+            assertEquals(board.getWhiteBoard(), out[1]);
+            assertEquals(board.getSideToMove(), PositionCodec.unpackSideToMove(packed));
+            assertEquals(phase, PositionCodec.unpackPhase(packed));
+        }
+    }
+
+    @Test
+    void fullBoardsFitInRankBits() {
+        // לוח מלא בשחור בלבד ובלבן בלבד - הדירוגים הקיצוניים
+        long[] out = new long[2];
+        long black = PositionCodec.pack(BitBoardRepresentation.FULL_BOARD, 0L, 1, 1);
+        PositionCodec.unpack(black, out);
+        assertArrayEquals(new long[] {BitBoardRepresentation.FULL_BOARD, 0L}, out);
+
+        long white = PositionCodec.pack(0L, BitBoardRepresentation.FULL_BOARD, 1, 1);
+        PositionCodec.unpack(white, out);
+        assertArrayEquals(new long[] {0L, BitBoardRepresentation.FULL_BOARD}, out);
+        assertEquals(1, PositionCodec.unpackSideToMove(white));
+        assertEquals(1, PositionCodec.unpackPhase(white));
+    }
+
+    @Test
+    void wideRoundTrip() {
+        Random random = new Random(5);
+        ByteBuffer buffer = ByteBuffer.allocate(100 * PositionCodec.WIDE_BYTES);
+        BitBoardRepresentation[] boards = new BitBoardRepresentation[100];
+        for (int i = 0; i < boards.length; i++) {
+            boards[i] = TestPositions.randomBoard(random, random.nextInt(37));
+            PositionCodec.writeWide(buffer, boards[i].getBlackBoard(), boards[i].getWhiteBoard(),
+                    boards[i].getSideToMove(), i & 1);
+        }
+
+        buffer.flip();
+        long[] out = new long[2];
+        for (int i = 0; i < boards.length; i++) {
+            int flags = PositionCodec.readWide(buffer, out);
+            assertEquals(boards[i].getBlackBoard(), out[0]);
+            assertEquals(boards[i].getWhiteBoard(), out[1]);
+            assertEquals(boards[i].getSideToMove() | (i & 1) << 1, flags);
+        }
+    }
+
+    @Test
+    void channelRoundTrip() throws IOException {
+        Random random = new Random(6);
+        long[] packed = new long[1000];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = PositionCodec.pack(TestPositions.randomBoard(random, random.nextInt(37)), i & 1);
+        }
+
+        // חוצץ קטן מכמות המצבים כדי לעבור דרך כמה מילויים
+        PositionCodec codec = new PositionCodec(64);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.write(Channels.newChannel(bytes), packed, 0, packed.length);
+        assertEquals(packed.length * PositionCodec.PACKED_BYTES, bytes.size());
+
+        long[] read = new long[packed.length + 10];
+        int count = codec.read(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())),
+                read, 0, read.length);
+        assertEquals(packed.length, count);
+        for (int i = 0; i < packed.length; i++) {
+            assertEquals(packed[i], read[i]);
+        }
+    }
+}
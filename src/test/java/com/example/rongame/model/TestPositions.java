@@ -0,0 +1,25 @@
+package com.example.rongame.model;
+
+import java.util.Random;
+
+// מצבים אקראיים לבדיקות - הנחות וסיבובים לסירוגין מלוח ריק
+final class TestPositions {
+
+    private TestPositions() {
+    }
+
+    static BitBoardRepresentation randomBoard(Random random, int moves) {
+        BitBoardRepresentation board = new BitBoardRepresentation();
+        for (int i = 0; i < moves; i++) {
+            board.doMove(randomEmptyCell(random, board.getEmptyMask()), random.nextInt(4), random.nextInt(2));
+        }
+        return board;
+    }
+
+    static int randomEmptyCell(Random random, long empty) {
+        for (int skip = random.nextInt(Long.bitCount(empty)); skip > 0; skip--) {
+            empty &= empty - 1;
+        }
+        return Long.numberOfTrailingZeros(empty);
+    }
+}